@@ -0,0 +1,34 @@
+package com.example.slide.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks on a plain JVM with the GC profiler attached, so
+ * every result comes with its allocation rate. Arguments are JMH command
+ * line options and override the defaults; for example {@code -p
+ * backend=BitBoard -t 4} picks a backend and a thread count, and a regular
+ * expression limits the benchmarks run.
+ *
+ * <p>Usage: {@code BenchmarkRunner [jmh options] [benchmark regex]}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
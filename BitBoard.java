@@ -0,0 +1,290 @@
+package com.example.slide.logic;
+
+/**
+ * A {@link Board} backend that packs X and O occupancy into two 25-bit masks.
+ * Cell (row, col) lives at bit {@code row * 5 + col}, so bits increase along
+ * the direction tokens slide in both rows and columns. Slides become a
+ * shift of the occupied run in front of the first blank, and win detection
+ * tests the 12 lines against precomputed masks.
+ */
+public class BitBoard implements Board {
+    public static final int DIM = 5;
+    public static final int CELLS = DIM * DIM;
+    public static final int FULL = (1 << CELLS) - 1;
+    public static final int MOVES = 2 * DIM;
+    /** Number of moves makeMove can stack before unmakeMove must be called. */
+    public static final int MAX_UNDO = 128;
+
+    /** Masks of the 12 winning lines: rows, columns, main diagonal, anti-diagonal. */
+    static final int[] LINES = new int[2 * DIM + 2];
+
+    // Per move index ('1'-'5' are 0-4, 'A'-'E' are 5-9)
+    static final int[] MOVE_LINE = new int[MOVES];
+    static final int[] MOVE_STEP = new int[MOVES];
+    static final int[] MOVE_FIRST = new int[MOVES];
+    static final int[] MOVE_LAST = new int[MOVES];
+
+    static {
+        for (int i = 0; i < DIM; i++) {
+            int row = 0;
+            int col = 0;
+            for (int j = 0; j < DIM; j++) {
+                row |= 1 << (i * DIM + j);
+                col |= 1 << (j * DIM + i);
+            }
+            LINES[i] = row;
+            LINES[DIM + i] = col;
+            LINES[2 * DIM] |= 1 << (i * DIM + i);
+            LINES[2 * DIM + 1] |= 1 << (i * DIM + DIM - 1 - i);
+
+            MOVE_LINE[i] = col;
+            MOVE_STEP[i] = DIM;
+            MOVE_FIRST[i] = 1 << i;
+            MOVE_LAST[i] = 1 << ((DIM - 1) * DIM + i);
+
+            MOVE_LINE[DIM + i] = row;
+            MOVE_STEP[DIM + i] = 1;
+            MOVE_FIRST[DIM + i] = 1 << (i * DIM);
+            MOVE_LAST[DIM + i] = 1 << (i * DIM + DIM - 1);
+        }
+    }
+
+    private int xMask;
+    private int oMask;
+    private Player currentPlayer;
+
+    // Undo stack of makeMove; each entry is the slid line's old X bits (0-24),
+    // old O bits (25-49), the move index (50-53) and whether the turn passed (54)
+    private final long[] undoStack = new long[MAX_UNDO];
+    private int undoSize;
+
+    public BitBoard() {
+        currentPlayer = Player.X;
+    }
+
+    /** Creates a copy of any board backend, including the player to move. */
+    public BitBoard(Board other) {
+        for (int row = 0; row < DIM; row++) {
+            for (int col = 0; col < DIM; col++) {
+                Player p = other.getCell(row, col);
+                if (p == Player.X) {
+                    xMask |= 1 << (row * DIM + col);
+                } else if (p == Player.O) {
+                    oMask |= 1 << (row * DIM + col);
+                }
+            }
+        }
+        currentPlayer = other.getCurrentPlayer();
+    }
+
+    /** Unpacks a position from {@link #key()}, such as a {@link PackedBoard} value. */
+    public static BitBoard fromKey(long key) {
+        BitBoard b = new BitBoard();
+        b.xMask = PackedBoard.xMask(key);
+        b.oMask = PackedBoard.oMask(key);
+        b.currentPlayer = PackedBoard.toMove(key);
+        return b;
+    }
+
+    /** Converts a move character to its index 0-9, or -1 if it is not a move. */
+    public static int moveIndex(char move) {
+        if (move >= '1' && move <= '5') {
+            return move - '1';
+        } else if (move >= 'A' && move <= 'E') {
+            return DIM + (move - 'A');
+        }
+        return -1;
+    }
+
+    /** Converts a move index 0-9 back to its character. */
+    public static char moveChar(int index) {
+        return index < DIM ? (char) ('1' + index) : (char) ('A' + index - DIM);
+    }
+
+    @Override
+    public void clear() {
+        xMask = 0;
+        oMask = 0;
+        undoSize = 0;
+    }
+
+    /** Empties the board like {@link #clear()} and also gives X the move, as in a new game. */
+    public void reset() {
+        clear();
+        currentPlayer = Player.X;
+    }
+
+    /** Returns an independent copy of this board; the copy has no moves to take back. */
+    public BitBoard copy() {
+        BitBoard b = new BitBoard();
+        b.xMask = xMask;
+        b.oMask = oMask;
+        b.currentPlayer = currentPlayer;
+        return b;
+    }
+
+    @Override
+    public boolean submitMove(char move) {
+        int index = moveIndex(move);
+        if (index < 0) {
+            return false;
+        }
+        return applyMove(index);
+    }
+
+    /**
+     * Applies the move with the given index 0-9.
+     * @return true if the player to move changed, as submitMove reports.
+     */
+    public boolean applyMove(int index) {
+        boolean moveSuccessful = slide(index);
+        if (moveSuccessful) {
+            togglePlayer();
+        }
+        return moveSuccessful;
+    }
+
+    /**
+     * Applies the move with the given index 0-9 and records what it changed,
+     * so {@link #unmakeMove()} can restore the position exactly. Neither call
+     * allocates.
+     * @return true if the player to move changed, as submitMove reports.
+     */
+    public boolean makeMove(int index) {
+        if (undoSize == MAX_UNDO) {
+            throw new IllegalStateException("Undo stack is full");
+        }
+        int line = MOVE_LINE[index];
+        long entry = (xMask & line) | (long) (oMask & line) << CELLS | (long) index << (2 * CELLS);
+        boolean moveSuccessful = applyMove(index);
+        if (moveSuccessful) {
+            entry |= 1L << (2 * CELLS + 4);
+        }
+        undoStack[undoSize++] = entry;
+        return moveSuccessful;
+    }
+
+    /** Takes back the last move applied with {@link #makeMove(int)}. */
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        long entry = undoStack[--undoSize];
+        int line = MOVE_LINE[(int) (entry >>> (2 * CELLS)) & 0xF];
+        xMask = (xMask & ~line) | ((int) entry & FULL);
+        oMask = (oMask & ~line) | ((int) (entry >>> CELLS) & FULL);
+        if ((entry & 1L << (2 * CELLS + 4)) != 0) {
+            togglePlayer();
+        }
+    }
+
+    /** Returns the number of moves that can be taken back with {@link #unmakeMove()}. */
+    public int getUndoSize() {
+        return undoSize;
+    }
+
+    /**
+     * Returns the cell, row * 5 + col, that the move with the given index
+     * would fill: the first blank of its line, or the last cell when the line
+     * is full and a token is pushed off.
+     */
+    public int filledCell(int index) {
+        int stop = (MOVE_LINE[index] & ~(xMask | oMask)) | MOVE_LAST[index];
+        return Integer.numberOfTrailingZeros(stop);
+    }
+
+    /**
+     * Slides the current player's token into the line of the given move.
+     * On a full line the last token is pushed off and, like {@link GameBoard},
+     * the slide is still applied but reported as unsuccessful.
+     */
+    private boolean slide(int index) {
+        int line = MOVE_LINE[index];
+        int blanks = line & ~(xMask | oMask);
+        // Lowest blank cell, or the last cell of the line when it is full
+        int stop = blanks | MOVE_LAST[index];
+        int target = stop & -stop;
+        int run = (target - 1) & line;
+        int keep = ~(run | target);
+        int step = MOVE_STEP[index];
+
+        xMask = (xMask & keep) | ((xMask & run) << step);
+        oMask = (oMask & keep) | ((oMask & run) << step);
+        if (currentPlayer == Player.X) {
+            xMask |= MOVE_FIRST[index];
+        } else {
+            oMask |= MOVE_FIRST[index];
+        }
+        return blanks != 0;
+    }
+
+    /** Toggles the current player between X and O. */
+    private void togglePlayer() {
+        currentPlayer = (currentPlayer == Player.X) ? Player.O : Player.X;
+    }
+
+    @Override
+    public Player checkForWin() {
+        for (int line : LINES) {
+            if ((xMask & line) == line) return Player.X;
+            if ((oMask & line) == line) return Player.O;
+        }
+        return Player.BLANK;
+    }
+
+    /**
+     * Returns the line {@link #checkForWin()} finds complete: 0-4 for rows A-E,
+     * 5-9 for columns 1-5, 10 and 11 for the diagonals, or -1 if there is none.
+     */
+    public int winningLine() {
+        for (int i = 0; i < LINES.length; i++) {
+            int line = LINES[i];
+            if ((xMask & line) == line || (oMask & line) == line) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean checkForTie() {
+        return (xMask | oMask) == FULL && checkForWin() == Player.BLANK;
+    }
+
+    /** Checks if every cell holds a token. */
+    public boolean isFull() {
+        return (xMask | oMask) == FULL;
+    }
+
+    /**
+     * Returns the exact position: X cells in bits 0-24, O cells in bits 25-49
+     * and bit 50 set when O is to move.
+     */
+    public long key() {
+        return xMask | (long) oMask << CELLS | (currentPlayer == Player.O ? 1L << (2 * CELLS) : 0L);
+    }
+
+    /** Returns a well-spread 64-bit hash of {@link #key()}. */
+    public long hash() {
+        return Zobrist.mix(key());
+    }
+
+    @Override
+    public Player getCell(int row, int col) {
+        int bit = 1 << (row * DIM + col);
+        if ((xMask & bit) != 0) return Player.X;
+        if ((oMask & bit) != 0) return Player.O;
+        return Player.BLANK;
+    }
+
+    @Override
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getXMask() {
+        return xMask;
+    }
+
+    public int getOMask() {
+        return oMask;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.slide.logic;
+
+/**
+ * Common surface of the game board backends. Every backend follows the
+ * rules of {@link GameBoard}: a move is a character '1'-'5' (slide down a
+ * column) or 'A'-'E' (slide right along a row). A {@link SquareBoard} of
+ * another size has as many columns from '1' and rows from 'A' as it is wide.
+ */
+public interface Board {
+
+    /** Resets the board to its initial state. */
+    void clear();
+
+    /**
+     * Processes a move by sliding tokens in the chosen row or column.
+     * @param move The character '1'-'5' for vertical moves or 'A'-'E' for horizontal moves.
+     * @return true if the move was successful, false otherwise.
+     */
+    boolean submitMove(char move);
+
+    /** Checks for a winning sequence in rows, columns, and diagonals. */
+    Player checkForWin();
+
+    /** Checks if the game is a tie. */
+    boolean checkForTie();
+
+    /** Returns the token at the given cell (row 0 is 'A', column 0 is '1'). */
+    Player getCell(int row, int col);
+
+    Player getCurrentPlayer();
+}
@@ -0,0 +1,182 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.Board;
+import com.example.slide.logic.GameBoard;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SquareBoard;
+import com.example.slide.logic.TableBoard;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the board operations for each {@link Board} backend,
+ * including the general {@link SquareBoard} at 5x5 against the specialized ones:
+ * applying a move, win and tie detection on mid-game and full boards, and
+ * whole random games. Positions are built once per trial from a fixed seed
+ * and cycled through, so every backend sees the same ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int POSITIONS = 1024;
+    private static final int MAX_GAME_PLIES = 200;
+    private static final char[] MOVES = "12345ABCDE".toCharArray();
+
+    /** Creates an empty board of the named backend. */
+    static Board newBoard(String backend) {
+        switch (backend) {
+            case "GameBoard":
+                return new GameBoard();
+            case "BitBoard":
+                return new BitBoard();
+            case "TableBoard":
+                return new TableBoard();
+            case "SquareBoard":
+                return new SquareBoard(BitBoard.DIM, BitBoard.DIM);
+            default:
+                throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Boards {
+        @Param({"GameBoard", "BitBoard", "TableBoard", "SquareBoard"})
+        public String backend;
+
+        Board board;
+        Board[] midGame = new Board[POSITIONS];
+        Board[] fullBoard = new Board[POSITIONS];
+        char[] moves = new char[POSITIONS];
+        int next;
+        long seed = 0x2545F4914F6CDD1DL;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(42);
+            board = newBoard(backend);
+            for (int i = 0; i < POSITIONS; i++) {
+                moves[i] = MOVES[random.nextInt(MOVES.length)];
+                midGame[i] = randomPosition(random, false);
+                fullBoard[i] = randomPosition(random, true);
+            }
+        }
+
+        /** Plays random moves until the board is full, or for 6-14 moves if not full. */
+        private Board randomPosition(Random random, boolean full) {
+            Board b = newBoard(backend);
+            int plies = full ? Integer.MAX_VALUE : 6 + random.nextInt(9);
+            for (int ply = 0; ply < plies && !isFull(b); ply++) {
+                b.submitMove(MOVES[random.nextInt(MOVES.length)]);
+            }
+            return b;
+        }
+
+        int nextIndex() {
+            return next++ & (POSITIONS - 1);
+        }
+
+        /** xorshift64, so the game benchmark does not measure java.util.Random. */
+        int nextMove() {
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            return (int) (((seed >>> 32) * MOVES.length) >>> 32);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Scores {
+        GameBoard board = new GameBoard();
+        int next;
+    }
+
+    private static boolean isFull(Board board) {
+        for (int row = 0; row < BitBoard.DIM; row++) {
+            for (int col = 0; col < BitBoard.DIM; col++) {
+                if (board.getCell(row, col) == Player.BLANK) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** One move on a board that is cleared whenever the game ends. */
+    @Benchmark
+    public boolean submitMove(Boards s) {
+        Board board = s.board;
+        boolean passed = board.submitMove(s.moves[s.nextIndex()]);
+        if (board.checkForWin() != Player.BLANK || board.checkForTie()) {
+            board.clear();
+        }
+        return passed;
+    }
+
+    /**
+     * The win check proper. GameBoard caches its outcome until the next move,
+     * so on the fixed positions here it is asked for its uncached scan.
+     */
+    private static Player checkForWin(Board board) {
+        return board instanceof GameBoard ? ((GameBoard) board).scanForWin() : board.checkForWin();
+    }
+
+    private static boolean checkForTie(Board board) {
+        if (board instanceof GameBoard) {
+            GameBoard g = (GameBoard) board;
+            return g.isFull() && g.scanForWin() == Player.BLANK;
+        }
+        return board.checkForTie();
+    }
+
+    @Benchmark
+    public Player checkForWinMidGame(Boards s) {
+        return checkForWin(s.midGame[s.nextIndex()]);
+    }
+
+    @Benchmark
+    public Player checkForWinFullBoard(Boards s) {
+        return checkForWin(s.fullBoard[s.nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean checkForTieFullBoard(Boards s) {
+        return checkForTie(s.fullBoard[s.nextIndex()]);
+    }
+
+    /** A whole random game from the empty board, capped at 200 moves. */
+    @Benchmark
+    public Player randomGame(Boards s) {
+        Board board = s.board;
+        board.clear();
+        Player winner = Player.BLANK;
+        for (int ply = 0; ply < MAX_GAME_PLIES && winner == Player.BLANK && !board.checkForTie(); ply++) {
+            board.submitMove(MOVES[s.nextMove()]);
+            winner = board.checkForWin();
+        }
+        return winner;
+    }
+
+    @Benchmark
+    public int getPositionScore(Scores s) {
+        int i = s.next++;
+        return s.board.getPositionScore((char) ('A' + i % 5), (char) ('1' + (i / 5) % 5));
+    }
+}
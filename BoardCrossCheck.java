@@ -0,0 +1,85 @@
+package com.example.slide.tools;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.Board;
+import com.example.slide.logic.GameBoard;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SquareBoard;
+import com.example.slide.logic.TableBoard;
+
+import java.util.Random;
+
+/**
+ * Plays random games on {@link GameBoard} and every other {@link Board}
+ * backend side by side and checks after each move that they agree on the
+ * move's return value, every cell, the side to move, the winner and the
+ * tie. The first disagreement is printed with the moves that led to it.
+ *
+ * <p>Usage: {@code BoardCrossCheck [games] [seed]}
+ */
+public class BoardCrossCheck {
+
+    private static final int MAX_GAME_PLIES = 200;
+    private static final char[] MOVES = "12345ABCDE".toCharArray();
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+        System.out.println("seed " + seed);
+
+        Random random = new Random(seed);
+        GameBoard reference = new GameBoard();
+        Board[] backends = {new BitBoard(), new TableBoard(), new SquareBoard(BitBoard.DIM, BitBoard.DIM)};
+        StringBuilder moves = new StringBuilder();
+        long checked = 0;
+        for (int game = 0; game < games; game++) {
+            reference.clear();
+            for (Board board : backends) {
+                board.clear();
+            }
+            moves.setLength(0);
+            for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+                char move = MOVES[random.nextInt(MOVES.length)];
+                moves.append(move);
+                boolean passed = reference.submitMove(move);
+                for (Board board : backends) {
+                    String difference = compare(reference, passed, board, board.submitMove(move));
+                    if (difference != null) {
+                        System.out.println(board.getClass().getSimpleName() + " disagrees after " + moves + ": " + difference);
+                        System.exit(1);
+                    }
+                }
+                checked++;
+                if (reference.checkForWin() != Player.BLANK || reference.checkForTie()) {
+                    break;
+                }
+            }
+        }
+        System.out.println("all backends agree on " + games + " games, " + checked + " moves");
+    }
+
+    /** Returns what differs between the reference and a backend after the same move, or null. */
+    private static String compare(GameBoard reference, boolean referencePassed, Board board, boolean passed) {
+        if (passed != referencePassed) {
+            return "move returned " + passed + ", expected " + referencePassed;
+        }
+        for (int row = 0; row < BitBoard.DIM; row++) {
+            for (int col = 0; col < BitBoard.DIM; col++) {
+                if (board.getCell(row, col) != reference.getCell(row, col)) {
+                    return "cell " + (char) ('A' + row) + (char) ('1' + col) + " is " + board.getCell(row, col)
+                            + ", expected " + reference.getCell(row, col);
+                }
+            }
+        }
+        if (board.getCurrentPlayer() != reference.getCurrentPlayer()) {
+            return "player to move is " + board.getCurrentPlayer() + ", expected " + reference.getCurrentPlayer();
+        }
+        if (board.checkForWin() != reference.checkForWin()) {
+            return "winner is " + board.checkForWin() + ", expected " + reference.checkForWin();
+        }
+        if (board.checkForTie() != reference.checkForTie()) {
+            return "tie is " + board.checkForTie() + ", expected " + reference.checkForTie();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.DifficultyLevel;
+import com.example.slide.logic.GameMode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One client socket, served by its own virtual thread. It reads command
+ * lines and blocks freely: a blocked virtual thread gives its carrier back.
+ * Buffers are kept small since the lines are short and there may be tens of
+ * thousands of connections.
+ */
+final class ClientConnection implements Runnable {
+    private static final int BUFFER_CHARS = 256;
+
+    private final GameServer server;
+    private final Socket socket;
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private OutputStream out;
+    private volatile MatchSession match;
+    private SpectatorFeed feed;
+    private SpectatorFeed.Watcher watcher;
+
+    ClientConnection(GameServer server, Socket socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            out = s.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII), BUFFER_CHARS);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!handle(line.trim())) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // The client went away; fall through to clean up
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            server.disconnected(this);
+            leaveMatch();
+            if (watcher != null) {
+                feed.unsubscribe(watcher);
+            }
+        }
+    }
+
+    /** Handles one command; returns false on QUIT. */
+    private boolean handle(String line) throws InterruptedException {
+        if (watcher != null) {
+            // The socket now carries frames; only QUIT is still heard
+            return !line.equals("QUIT");
+        }
+        String[] tokens = line.split(" ");
+        switch (tokens[0]) {
+            case "PLAY":
+                play(tokens);
+                return true;
+            case "MOVE":
+                MatchSession m = match;
+                if (m == null || tokens.length < 2) {
+                    send("ERROR no match");
+                } else if (m.submit(this, tokens[1])) {
+                    m.playComputer(server.getEngines());
+                }
+                return true;
+            case "WATCH":
+                watch(tokens);
+                return true;
+            case "STATS":
+                boolean collect = tokens.length > 1 && tokens[1].equals("gc")
+                        && socket.getInetAddress().isLoopbackAddress();
+                send(server.stats(collect));
+                return true;
+            case "QUIT":
+                return false;
+            default:
+                send("ERROR unknown command " + tokens[0]);
+                return true;
+        }
+    }
+
+    private void play(String[] tokens) {
+        GameMode mode;
+        DifficultyLevel level = DifficultyLevel.MEDIUM;
+        try {
+            mode = GameMode.valueOf(tokens.length > 1 ? tokens[1].toUpperCase(Locale.ROOT) : "");
+            if (tokens.length > 2) {
+                level = DifficultyLevel.valueOf(tokens[2].toUpperCase(Locale.ROOT));
+            }
+        } catch (IllegalArgumentException e) {
+            send("ERROR usage: PLAY ONE_PLAYER [EASY|MEDIUM|HARD] | PLAY TWO_PLAYER");
+            return;
+        }
+        server.leaveLobby(this);
+        leaveMatch();
+        if (mode == GameMode.ONE_PLAYER) {
+            server.startOnePlayer(this, level);
+        } else {
+            server.joinTwoPlayer(this);
+        }
+    }
+
+    /** Turns the connection into a spectator feed of a match. */
+    private void watch(String[] tokens) {
+        MatchSession target = null;
+        try {
+            target = tokens.length > 1 ? server.findMatch(Long.parseLong(tokens[1])) : null;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        if (target == null) {
+            send("ERROR no such match");
+            return;
+        }
+        server.leaveLobby(this);
+        leaveMatch();
+        send("WATCH " + target.getId());
+        feed = target.watch();
+        watcher = feed.subscribe(out, this::close);
+    }
+
+    private void leaveMatch() {
+        MatchSession m = match;
+        match = null;
+        if (m != null && m.leave(this)) {
+            server.matchReleased(m);
+        }
+    }
+
+    void setMatch(MatchSession match) {
+        this.match = match;
+    }
+
+    /** Writes one line; a failed write closes the socket so the reader ends. */
+    void send(String line) {
+        sendLock.lock();
+        try {
+            out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        } catch (IOException e) {
+            close();
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
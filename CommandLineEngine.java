@@ -0,0 +1,369 @@
+package com.example.slide.cli;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.GameBoard;
+import com.example.slide.logic.OpeningBook;
+import com.example.slide.logic.ParallelSearch;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchEngine;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless engine that speaks a line-based protocol modelled on UCI over
+ * stdin and stdout, for GUIs, tournament managers and fuzzers.
+ *
+ * <p>Commands:
+ * <ul>
+ * <li>{@code uci}: answers {@code id name}, the options and {@code uciok};</li>
+ * <li>{@code isready}: answers {@code readyok}, at once, even mid-search;</li>
+ * <li>{@code setoption name Threads|Hash value N}: search threads or table megabytes;</li>
+ * <li>{@code setoption name Book value FILE}: play from an opening book built by
+ *     {@link com.example.slide.tools.OpeningBookBuilder}; {@code <empty>} for none;</li>
+ * <li>{@code ucinewgame}: clears the table;</li>
+ * <li>{@code position startpos [moves M...]}: the start position plus moves, each
+ *     '1'-'5' or 'A'-'E', given one per token or run together ({@code moves 1A3});</li>
+ * <li>{@code go [depth N] [nodes N] [movetime MS] [xtime MS] [otime MS] [xinc MS]
+ *     [oinc MS] [infinite]}: searches and ends with {@code bestmove M}; with
+ *     {@code infinite}, bestmove waits for {@code stop} even if the search
+ *     ends first;</li>
+ * <li>{@code stop}: ends the search, which answers with its best move so far;</li>
+ * <li>{@code quit}.</li>
+ * </ul>
+ * Each completed iteration is reported as
+ * {@code info depth D score cp S nodes N nps R time MS pv M...}; a forced
+ * result is {@code score mate P}, P being the plies to the win and negative
+ * when the side to move loses. Plies rather than moves, since a push-off
+ * keeps the turn. A finished game answers {@code bestmove none}.
+ *
+ * <p>The calling thread only reads and answers commands; searches run on a
+ * thread of their own, so {@code stop} reaches the search within
+ * milliseconds however deep it is.
+ */
+public class CommandLineEngine {
+    static final String NAME = "Tic-Tac-Slide";
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_THREADS = 256;
+    private static final long MIN_MOVE_MILLIS = 10;
+    /** Share of the remaining clock spent on one move. */
+    private static final int MOVES_TO_GO = 20;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final ExecutorService searcher = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "engine-search");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private int threads = 1;
+    private int hashMb = DEFAULT_HASH_MB;
+    private OpeningBook book;
+    private ParallelSearch search;
+    private GameBoard board = new GameBoard();
+    private Future<?> running;
+    private CountDownLatch stopSignal;
+
+    public CommandLineEngine(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        new CommandLineEngine(System.in, System.out).run();
+    }
+
+    /** Reads and handles commands until {@code quit} or the end of the input. */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!handle(line.trim())) {
+                    break;
+                }
+            }
+        } finally {
+            stopAndWait();
+            if (search != null) {
+                search.shutdown();
+            }
+            searcher.shutdownNow();
+        }
+    }
+
+    /** Handles one command line; returns false on quit. */
+    boolean handle(String line) {
+        if (line.isEmpty()) {
+            return true;
+        }
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max 4096");
+                send("option name Book type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopAndWait();
+                setOption(tokens);
+                break;
+            case "ucinewgame":
+                stopAndWait();
+                if (search != null) {
+                    search.getTable().clear();
+                }
+                board = new GameBoard();
+                break;
+            case "position":
+                stopAndWait();
+                setPosition(tokens);
+                break;
+            case "go":
+                go(tokens);
+                break;
+            case "stop":
+                if (search != null) {
+                    search.stop();
+                }
+                if (stopSignal != null) {
+                    stopSignal.countDown();
+                }
+                break;
+            case "quit":
+                return false;
+            default:
+                send("info string unknown command: " + tokens[0]);
+        }
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        // setoption name <name> value <n>
+        if (tokens.length < 5 || !tokens[1].equals("name") || !tokens[3].equals("value")) {
+            send("info string usage: setoption name Threads|Hash value N | Book value FILE");
+            return;
+        }
+        if (tokens[2].equalsIgnoreCase("Book")) {
+            setBook(String.join(" ", Arrays.copyOfRange(tokens, 4, tokens.length)));
+            return;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(tokens[4]);
+        } catch (NumberFormatException e) {
+            send("info string not a number: " + tokens[4]);
+            return;
+        }
+        if (tokens[2].equalsIgnoreCase("Threads")) {
+            threads = Math.max(1, Math.min(value, MAX_THREADS));
+        } else if (tokens[2].equalsIgnoreCase("Hash")) {
+            hashMb = Math.max(1, value);
+        } else {
+            send("info string unknown option: " + tokens[2]);
+            return;
+        }
+        if (search != null) {
+            search.shutdown();
+            search = null;
+        }
+    }
+
+    /** Maps the book file, or drops the book for {@code <empty>}. */
+    private void setBook(String path) {
+        if (path.equals("<empty>")) {
+            book = null;
+        } else {
+            try {
+                book = OpeningBook.open(new File(path));
+                send("info string book " + path + " with " + book.size() + " positions");
+            } catch (IOException e) {
+                send("info string cannot open book: " + e.getMessage());
+                return;
+            }
+        }
+        if (search != null) {
+            search.setOpeningBook(book);
+        }
+    }
+
+    private void setPosition(String[] tokens) {
+        GameBoard position = new GameBoard();
+        int i = 1;
+        if (i < tokens.length && tokens[i].equals("startpos")) {
+            i++;
+        }
+        if (i < tokens.length && tokens[i].equals("moves")) {
+            for (i++; i < tokens.length; i++) {
+                for (char move : tokens[i].toCharArray()) {
+                    if (BitBoard.moveIndex(move) < 0) {
+                        send("info string illegal move: " + move);
+                        return;
+                    }
+                    position.submitMove(move);
+                }
+            }
+        }
+        board = position;
+    }
+
+    private void go(String[] tokens) {
+        if (running != null && !running.isDone()) {
+            send("info string already searching");
+            return;
+        }
+        SearchLimits limits;
+        try {
+            limits = parseLimits(tokens, board.getCurrentPlayer());
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            send("info string bad go command");
+            return;
+        }
+        boolean infinite = Arrays.asList(tokens).contains("infinite");
+        boolean over = board.checkForWin() != Player.BLANK || board.checkForTie() || board.isDrawByRepetition();
+        if (over && !infinite) {
+            send("bestmove none");
+            return;
+        }
+        if (search == null) {
+            search = new ParallelSearch(threads, hashMb);
+            search.setListener(this::sendInfo);
+            search.setOpeningBook(book);
+        }
+        ParallelSearch s = search;
+        GameBoard position = board;
+        // Armed here, not on the search thread, so a stop sent right after go is never lost
+        s.prepare();
+        CountDownLatch stopped = new CountDownLatch(1);
+        stopSignal = stopped;
+        running = searcher.submit(() -> {
+            String best = "none";
+            if (!over) {
+                try {
+                    best = String.valueOf(s.search(position, limits).getBestMove());
+                } catch (RuntimeException e) {
+                    send("info string search failed: " + e);
+                }
+            }
+            if (infinite) {
+                awaitStop(stopped);
+            }
+            send("bestmove " + best);
+        });
+    }
+
+    /** Holds the bestmove of {@code go infinite} until {@code stop}, as a search that ended early must. */
+    private static void awaitStop(CountDownLatch stopped) {
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Turns the arguments of {@code go} into a budget for the side to move. */
+    static SearchLimits parseLimits(String[] tokens, Player toMove) {
+        int depth = SearchLimits.MAX_DEPTH;
+        long nodes = 0;
+        long moveTime = 0;
+        long time = 0;
+        long inc = 0;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "depth":
+                    depth = Integer.parseInt(tokens[++i]);
+                    break;
+                case "nodes":
+                    nodes = Long.parseLong(tokens[++i]);
+                    break;
+                case "movetime":
+                    moveTime = Long.parseLong(tokens[++i]);
+                    break;
+                case "xtime":
+                case "otime":
+                    if (tokens[i].charAt(0) == Character.toLowerCase(toMove.name().charAt(0))) {
+                        time = Long.parseLong(tokens[++i]);
+                    } else {
+                        i++;
+                    }
+                    break;
+                case "xinc":
+                case "oinc":
+                    if (tokens[i].charAt(0) == Character.toLowerCase(toMove.name().charAt(0))) {
+                        inc = Long.parseLong(tokens[++i]);
+                    } else {
+                        i++;
+                    }
+                    break;
+                default:
+                    // infinite and anything unknown: no extra limit
+            }
+        }
+        if (moveTime == 0 && time > 0) {
+            moveTime = Math.max(MIN_MOVE_MILLIS, Math.min(time / MOVES_TO_GO + inc / 2, time / 2));
+        }
+        return new SearchLimits(Math.max(1, depth), moveTime, nodes);
+    }
+
+    private void sendInfo(SearchResult result) {
+        StringBuilder sb = new StringBuilder("info depth ").append(result.getDepth());
+        int score = result.getScore();
+        if (result.isDecisive()) {
+            int plies = SearchEngine.WIN_SCORE - Math.abs(score);
+            sb.append(" score mate ").append(score > 0 ? plies : -plies);
+        } else {
+            sb.append(" score cp ").append(score);
+        }
+        sb.append(" nodes ").append(result.getNodes())
+                .append(" nps ").append(result.getNodesPerSecond())
+                .append(" time ").append(result.getTimeMillis())
+                .append(" pv");
+        for (char move : result.getPrincipalVariation().toCharArray()) {
+            sb.append(' ').append(move);
+        }
+        send(sb.toString());
+    }
+
+    /** Stops a running search and waits for its bestmove to go out. */
+    private void stopAndWait() {
+        if (running == null) {
+            return;
+        }
+        if (search != null) {
+            search.stop();
+        }
+        stopSignal.countDown();
+        try {
+            running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            send("info string search failed: " + e.getCause());
+        }
+        running = null;
+    }
+
+    /** Writes one line; both threads write, so lines are never interleaved. */
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+}
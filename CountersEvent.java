@@ -0,0 +1,33 @@
+package com.example.slide.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/** Periodic totals of the logic counters, when they are enabled. */
+@Name("com.example.slide.Counters")
+@Label("Logic Counters")
+@Category("Tic-Tac-Slide")
+@Period("1 s")
+@StackTrace(false)
+public class CountersEvent extends jdk.jfr.Event {
+    @Label("Moves Applied")
+    long movesApplied;
+
+    @Label("Illegal Moves")
+    long illegalMoves;
+
+    @Label("Win Checks")
+    long winChecks;
+
+    @Label("Search Nodes")
+    long searchNodes;
+
+    @Label("Table Probes")
+    long tableProbes;
+
+    @Label("Table Hits")
+    long tableHits;
+}
@@ -16,8 +16,15 @@ import androidx.appcompat.widget.AppCompatImageView;
 import com.example.slide.R;
 import com.example.slide.logic.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CustomView extends RelativeLayout implements TickListener {
 
@@ -25,12 +32,26 @@ public class CustomView extends RelativeLayout implements TickListener {
     private boolean firstRun;
     private GridButton[] buttons;
     private List<GuiToken> tokens;
-    private GameBoard engine;
+    private Board engine;
+    private int dim;
+    private int winLength;
     private GameHandler tim;
     private GameMode gameMode;
     private DifficultyLevel difficultyLevel;
     private Button backButton;
 
+    private static final Player COMPUTER = Player.O;
+    private static final String BOOK_ASSET = "opening.tsob";
+    private static final int MCTS_NODES = 1 << 18;
+    private SearchEngine alphaBeta;
+    private Engine computer;
+    private ExecutorService computerThread;
+    private boolean computerThinking;
+
+    private GameJournal journal;
+    private boolean gameJournaled;
+    private int movesPlayed;
+
     private String currentTheme;
     private int[] backgroundImages;
     private int currentBackgroundIndex = 0;
@@ -52,13 +73,19 @@ public class CustomView extends RelativeLayout implements TickListener {
      */
     private void initialize(Context context) {
         firstRun = true;
-        buttons = new GridButton[10];
         tokens = new ArrayList<>();
         engine = new GameBoard();
+        dim = BitBoard.DIM;
+        winLength = BitBoard.DIM;
         tim = new GameHandler();
         tim.register(this);
         gameMode = GameMode.ONE_PLAYER;
         difficultyLevel = DifficultyLevel.EASY;
+        alphaBeta = new SearchEngine();
+        computer = alphaBeta;
+        computerThread = Executors.newSingleThreadExecutor();
+        computerThread.execute(() -> loadOpeningBook(context));
+        journal = new GameJournal(new File(context.getFilesDir(), "games.journal"));
 
         // Load the initial theme from shared preferences
         SharedPreferences prefs = context.getSharedPreferences("com.example.slide_preferences", Context.MODE_PRIVATE);
@@ -71,6 +98,34 @@ public class CustomView extends RelativeLayout implements TickListener {
         createBackButton(context);
     }
 
+    /**
+     * Maps the opening book shipped as an app asset, written by OpeningBookBuilder.
+     * An asset cannot be mapped in place, so it is copied to the files directory
+     * the first time. Runs on the computer's thread, ahead of its first search.
+     */
+    private void loadOpeningBook(Context context) {
+        File file = new File(context.getFilesDir(), BOOK_ASSET);
+        try {
+            if (!file.exists()) {
+                File partial = new File(context.getFilesDir(), BOOK_ASSET + ".part");
+                try (InputStream in = context.getAssets().open(BOOK_ASSET);
+                     OutputStream out = new FileOutputStream(partial)) {
+                    byte[] buffer = new byte[1 << 16];
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                if (!partial.renameTo(file)) {
+                    throw new IOException("Cannot rename " + partial);
+                }
+            }
+            alphaBeta.setOpeningBook(OpeningBook.open(file));
+        } catch (IOException e) {
+            Log.w("CustomView", "Playing without an opening book: " + e);
+        }
+    }
+
     /**
      * Creates a back button and positions it on the top-left corner.
      */
@@ -173,29 +228,30 @@ public class CustomView extends RelativeLayout implements TickListener {
     }
 
     private void init() {
+        buttons = new GridButton[2 * dim];
         float w = getWidth();
         float unit = w / 16f;
         float gridX = unit * 2.5f;
-        float cellSize = unit * 2.3f;
+        float cellSize = unit * 11.5f / dim; // the grid spans 11.5 units whatever its size
         float gridY = unit * 9;
-        grid = new Grid(gridX, gridY, cellSize);
+        grid = new Grid(gridX, gridY, cellSize, dim);
 
         float buttonTop = gridY - cellSize;
         float buttonLeft = gridX - cellSize;
 
-        for (int i = 0; i < 5; i++) {
+        for (int i = 0; i < dim; i++) {
             buttons[i] = new GridButton((char) ('1' + i), this, buttonLeft + cellSize * (i + 1), buttonTop, cellSize);
         }
 
-        for (int i = 0; i < 5; i++) {
-            buttons[5 + i] = new GridButton((char) ('A' + i), this, buttonLeft, buttonTop + cellSize * (i + 1), cellSize);
+        for (int i = 0; i < dim; i++) {
+            buttons[dim + i] = new GridButton((char) ('A' + i), this, buttonLeft, buttonTop + cellSize * (i + 1), cellSize);
         }
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent m) {
         cleanupFallenTokens();
-        if (m.getAction() == MotionEvent.ACTION_DOWN && !anyMovers()) {
+        if (m.getAction() == MotionEvent.ACTION_DOWN && !anyMovers() && !isComputerTurn()) {
             float x = m.getX();
             float y = m.getY();
             boolean missed = true;
@@ -203,13 +259,7 @@ public class CustomView extends RelativeLayout implements TickListener {
             for (GridButton b : buttons) {
                 if (b.contains(x, y)) {
                     b.press();
-
-                    // Create a new GuiToken
-                    GuiToken tok = new GuiToken(engine.getCurrentPlayer(), b, getResources(), currentTheme);
-                    engine.submitMove(b.getLabel());
-                    tokens.add(tok);
-                    tim.register(tok);
-                    setupAnimation(b, tok);
+                    playMove(b);
                     missed = false;
                 }
             }
@@ -225,6 +275,52 @@ public class CustomView extends RelativeLayout implements TickListener {
         return true;
     }
 
+    /**
+     * Submits the move of a button to the engine and animates the new token.
+     *
+     * @param b The button of the row or column to slide.
+     */
+    private void playMove(GridButton b) {
+        // Create a new GuiToken
+        GuiToken tok = new GuiToken(engine.getCurrentPlayer(), b, dim, getResources(), currentTheme);
+        if (!gameJournaled) {
+            journal.startGame(gameMode, dim, winLength);
+            gameJournaled = true;
+        }
+        journal.recordMove(b.getLabel());
+        movesPlayed++;
+        engine.submitMove(b.getLabel());
+        tokens.add(tok);
+        tim.register(tok);
+        setupAnimation(b, tok);
+    }
+
+    /** The computer only plays the standard game; variants are always two-player. */
+    private boolean isComputerTurn() {
+        return gameMode == GameMode.ONE_PLAYER && isStandardBoard() && engine.getCurrentPlayer() == COMPUTER;
+    }
+
+    private boolean isStandardBoard() {
+        return engine instanceof GameBoard;
+    }
+
+    /**
+     * Searches for the computer's move on a background thread and plays it
+     * on the UI thread once the search budget of the difficulty level is spent.
+     */
+    private void startComputerMove() {
+        computerThinking = true;
+        final BitBoard position = new BitBoard(engine);
+        final DifficultyLevel level = difficultyLevel;
+        computerThread.execute(() -> {
+            SearchResult result = computer.search(position, level);
+            post(() -> {
+                computerThinking = false;
+                playMove(buttons[BitBoard.moveIndex(result.getBestMove())]);
+            });
+        });
+    }
+
     private boolean anyMovers() {
         return tokens.stream().anyMatch(GuiToken::isMoving);
     }
@@ -245,7 +341,7 @@ public class CustomView extends RelativeLayout implements TickListener {
 
         if (b.isTopButton()) {
             char col = b.getLabel();
-            for (char row = 'A'; row <= 'E'; row++) {
+            for (char row = 'A'; row < 'A' + dim; row++) {
                 GuiToken other = findTokenAt(row, col);
                 if (other != null) {
                     neighbors.add(other);
@@ -256,7 +352,7 @@ public class CustomView extends RelativeLayout implements TickListener {
             neighbors.forEach(GuiToken::startMovingDown);
         } else {
             char row = b.getLabel();
-            for (char col = '1'; col <= '5'; col++) {
+            for (char col = '1'; col < '1' + dim; col++) {
                 GuiToken other = findTokenAt(row, col);
                 if (other != null) {
                     neighbors.add(other);
@@ -289,11 +385,23 @@ public class CustomView extends RelativeLayout implements TickListener {
                 showGameOverDialog(Player.BLANK);
                 return;
             }
+
+            if (isStandardBoard() && ((GameBoard) engine).isDrawByRepetition()) {
+                tim.pause();
+                showGameOverDialog(Player.BLANK);
+                return;
+            }
+
+            if (isComputerTurn() && !computerThinking) {
+                startComputerMove();
+            }
         }
         invalidate();
     }
 
     private void showGameOverDialog(Player winner) {
+        journal.endGame(winner);
+        Instrumentation.gameOver(winner, movesPlayed);
         // Game over dialog logic
     }
 
@@ -306,7 +414,46 @@ public class CustomView extends RelativeLayout implements TickListener {
         return engine.checkForWin() == Player.BLANK;
     }
 
+    /**
+     * Plays on a variant board instead of the standard 5x5 game. Must be
+     * called before the view is first drawn.
+     *
+     * @param dim The number of rows and columns, 4 to 8.
+     * @param winLength The number of tokens in a row that wins, 3 to dim.
+     */
+    public void setBoardSize(int dim, int winLength) {
+        if (dim == BitBoard.DIM && winLength == BitBoard.DIM) {
+            engine = new GameBoard();
+        } else {
+            engine = new SquareBoard(dim, winLength);
+        }
+        this.dim = dim;
+        this.winLength = winLength;
+    }
+
     public void setGameMode(GameMode gameMode) {
+        this.gameMode = gameMode;
+    }
+
+    public void setDifficultyLevel(DifficultyLevel difficultyLevel) {
+        this.difficultyLevel = difficultyLevel;
+    }
+
+    /**
+     * Lets the computer play with Monte Carlo tree search instead of alpha-beta.
+     * Call it before the computer's first move.
+     */
+    public void setMonteCarlo(boolean monteCarlo) {
+        computer.shutdown();
+        computer = monteCarlo ? new MctsEngine(1, MCTS_NODES) : alphaBeta;
+    }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        computer.stop();
+        computerThread.shutdownNow();
+        computer.shutdown();
+        journal.close();
     }
 }
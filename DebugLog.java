@@ -0,0 +1,47 @@
+package com.example.slide.logic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Debug logging for the game logic that only reaches {@code android.util.Log}
+ * when running on Android. Log is looked up at run time rather than
+ * imported, so the logic package compiles and runs on a plain JVM (the
+ * command-line engine, benchmarks, tools) without the Android SDK. Callers
+ * test {@link #ENABLED} first so no message is built when nothing would
+ * print it.
+ */
+final class DebugLog {
+    private static final MethodHandle LOG_D = findLog();
+
+    /** True on an Android runtime, where android.util.Log was found. */
+    static final boolean ENABLED = LOG_D != null;
+
+    private DebugLog() {
+    }
+
+    /** Returns android.util.Log.d on an Android runtime, whose VM reports itself as Dalvik, or null. */
+    private static MethodHandle findLog() {
+        if (!"Dalvik".equals(System.getProperty("java.vm.name"))) {
+            return null;
+        }
+        try {
+            Class<?> log = Class.forName("android.util.Log");
+            return MethodHandles.publicLookup().findStatic(log, "d",
+                    MethodType.methodType(int.class, String.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    static void d(String tag, String message) {
+        if (ENABLED) {
+            try {
+                int ignored = (int) LOG_D.invokeExact(tag, message);
+            } catch (Throwable e) {
+                // Logging must never break the game
+            }
+        }
+    }
+}
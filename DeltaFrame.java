@@ -0,0 +1,156 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.Player;
+
+/**
+ * The binary frames sent to spectators. Each frame is built once and the
+ * same bytes go to every watcher, so a frame is never modified after
+ * {@link #delta} or {@link #snapshot} returns it.
+ *
+ * <p>A delta frame is 8 bytes and describes one move by the line it
+ * changed, since a slide touches a single row or column:
+ * <pre>
+ *   0    {@link #DELTA}
+ *   1-4  sequence number, big-endian
+ *   5    move index (bits 4-7), pushed-off token (bits 2-3), player to move (bits 0-1)
+ *   6-7  the five cells of the line after the move, 2 bits each, big-endian,
+ *        entry cell in bits 0-1
+ * </pre>
+ * Tokens are {@link Player} ordinals, BLANK for none, and cells of a line
+ * run in the direction of the slide: top to bottom for a column, left to
+ * right for a row.
+ *
+ * <p>A snapshot frame is 14 bytes and carries the whole board:
+ * <pre>
+ *   0     {@link #SNAPSHOT}
+ *   1-4   sequence number of the last move included
+ *   5     player to move
+ *   6-9   X mask, cell (row, col) at bit row * 5 + col
+ *   10-13 O mask
+ * </pre>
+ * A watcher gets a snapshot first and again whenever it fell behind and
+ * frames were discarded; deltas then continue from its sequence number.
+ *
+ * <p>An end frame is 6 bytes and is the last frame of a match; the server
+ * closes the connection after it:
+ * <pre>
+ *   0    {@link #END}
+ *   1-4  sequence number of the last move
+ *   5    result: the winner, TIE for a draw, or BLANK when the match ended
+ *        without one because a player left or the server gave up on it
+ * </pre>
+ */
+public final class DeltaFrame {
+    public static final byte DELTA = 1;
+    public static final byte SNAPSHOT = 2;
+    public static final byte END = 3;
+    public static final int DELTA_BYTES = 8;
+    public static final int SNAPSHOT_BYTES = 14;
+    public static final int END_BYTES = 6;
+
+    private static final Player[] TOKENS = Player.values();
+
+    private DeltaFrame() {
+    }
+
+    /**
+     * Encodes a move that has just been made.
+     * @param seq The sequence number of the move.
+     * @param after The board after the move.
+     * @param moveIndex The move, as in {@link BitBoard#moveIndex(char)}.
+     * @param pushedOff The token pushed off the end of the line, or BLANK.
+     */
+    public static byte[] delta(int seq, BitBoard after, int moveIndex, Player pushedOff) {
+        int line = 0;
+        for (int i = 0; i < BitBoard.DIM; i++) {
+            line |= lineCell(after, moveIndex, i).ordinal() << (2 * i);
+        }
+        byte[] frame = new byte[DELTA_BYTES];
+        frame[0] = DELTA;
+        putInt(frame, 1, seq);
+        frame[5] = (byte) (moveIndex << 4 | pushedOff.ordinal() << 2 | after.getCurrentPlayer().ordinal());
+        frame[6] = (byte) (line >>> 8);
+        frame[7] = (byte) line;
+        return frame;
+    }
+
+    /** Encodes the whole board as of the given sequence number. */
+    public static byte[] snapshot(int seq, BitBoard board) {
+        byte[] frame = new byte[SNAPSHOT_BYTES];
+        frame[0] = SNAPSHOT;
+        putInt(frame, 1, seq);
+        frame[5] = (byte) board.getCurrentPlayer().ordinal();
+        putInt(frame, 6, board.getXMask());
+        putInt(frame, 10, board.getOMask());
+        return frame;
+    }
+
+    /**
+     * Encodes the end of the match.
+     * @param seq The sequence number of the last move.
+     * @param result The winner, TIE for a draw, or BLANK for no result.
+     */
+    public static byte[] end(int seq, Player result) {
+        byte[] frame = new byte[END_BYTES];
+        frame[0] = END;
+        putInt(frame, 1, seq);
+        frame[5] = (byte) result.ordinal();
+        return frame;
+    }
+
+    /** Returns the i-th cell of the line a move slides, in slide order. */
+    static Player lineCell(BitBoard board, int moveIndex, int i) {
+        return moveIndex < BitBoard.DIM ? board.getCell(i, moveIndex) : board.getCell(moveIndex - BitBoard.DIM, i);
+    }
+
+    /**
+     * Applies a frame to a spectator's copy of the board, for clients and
+     * tools. The state is {xMask, oMask, player to move ordinal, sequence}.
+     * An end frame leaves the state as it is.
+     * @return False if a delta does not follow the state's sequence number;
+     *         the state is then left alone until the next snapshot.
+     */
+    public static boolean apply(byte[] frame, int offset, int[] state) {
+        int seq = getInt(frame, offset + 1);
+        if (frame[offset] == END) {
+            return true;
+        }
+        if (frame[offset] == SNAPSHOT) {
+            state[0] = getInt(frame, offset + 6);
+            state[1] = getInt(frame, offset + 10);
+            state[2] = frame[offset + 5];
+            state[3] = seq;
+            return true;
+        }
+        if (seq != state[3] + 1) {
+            return false;
+        }
+        int packed = frame[offset + 5] & 0xFF;
+        int moveIndex = packed >>> 4;
+        int line = (frame[offset + 6] & 0xFF) << 8 | (frame[offset + 7] & 0xFF);
+        for (int i = 0; i < BitBoard.DIM; i++) {
+            int bit = moveIndex < BitBoard.DIM
+                    ? 1 << (i * BitBoard.DIM + moveIndex)
+                    : 1 << ((moveIndex - BitBoard.DIM) * BitBoard.DIM + i);
+            Player token = TOKENS[(line >>> (2 * i)) & 3];
+            state[0] = token == Player.X ? state[0] | bit : state[0] & ~bit;
+            state[1] = token == Player.O ? state[1] | bit : state[1] & ~bit;
+        }
+        state[2] = packed & 3;
+        state[3] = seq;
+        return true;
+    }
+
+    private static void putInt(byte[] frame, int offset, int value) {
+        frame[offset] = (byte) (value >>> 24);
+        frame[offset + 1] = (byte) (value >>> 16);
+        frame[offset + 2] = (byte) (value >>> 8);
+        frame[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] frame, int offset) {
+        return (frame[offset] & 0xFF) << 24 | (frame[offset + 1] & 0xFF) << 16
+                | (frame[offset + 2] & 0xFF) << 8 | (frame[offset + 3] & 0xFF);
+    }
+}
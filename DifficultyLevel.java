@@ -1,8 +1,33 @@
 package com.example.slide.logic;
 
+/**
+ * Difficulty of the computer opponent. Each level caps the search depth
+ * and puts a hard ceiling on thinking time and nodes per move.
+ */
 public enum DifficultyLevel {
-    EASY,
-    MEDIUM,
-    HARD
-}
+    EASY(1, 100, 2_000),
+    MEDIUM(4, 300, 200_000),
+    HARD(64, 1000, 20_000_000);
+
+    private final int maxDepth;
+    private final long timeMillis;
+    private final long nodeLimit;
+
+    DifficultyLevel(int maxDepth, long timeMillis, long nodeLimit) {
+        this.maxDepth = maxDepth;
+        this.timeMillis = timeMillis;
+        this.nodeLimit = nodeLimit;
+    }
 
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+}
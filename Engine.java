@@ -0,0 +1,30 @@
+package com.example.slide.logic;
+
+/**
+ * A computer player: {@link SearchEngine}, {@link ParallelSearch} or
+ * {@link MctsEngine}, so the game can be given either kind of search.
+ */
+public interface Engine {
+
+    /**
+     * Searches the position for the best move of the player to move.
+     * @param position The position to search; it is not modified.
+     * @param limits The search budget.
+     */
+    SearchResult search(Board position, SearchLimits limits);
+
+    /** Searches the position with the budget of a difficulty level. */
+    default SearchResult search(Board position, DifficultyLevel level) {
+        return search(position, SearchLimits.of(level));
+    }
+
+    /** Clears a stop left over from an earlier search. */
+    void prepare();
+
+    /** Asks a running search to return as soon as possible. Safe to call from any thread. */
+    void stop();
+
+    /** Releases the engine's threads, if it has any; it cannot search afterwards. */
+    default void shutdown() {
+    }
+}
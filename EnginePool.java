@@ -0,0 +1,77 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.Board;
+import com.example.slide.logic.OpeningBook;
+import com.example.slide.logic.SearchEngine;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A fixed set of {@link SearchEngine}s shared by every ONE_PLAYER match,
+ * each on a platform thread of its own. Searches are CPU-bound and a
+ * virtual thread is never preempted, so a search running on a connection's
+ * virtual thread would hold a carrier until it ended and stall the I/O of
+ * every other connection. Instead the connection hands the search to this
+ * pool and parks on the result, which frees its carrier.
+ *
+ * <p>The pool size, not the number of matches, caps how many searches run
+ * at once; a match whose computer is due to move queues for a free engine.
+ * Keep it below the core count so the carriers keep cores for I/O.
+ */
+final class EnginePool {
+    private final ExecutorService threads;
+    private final ThreadLocal<SearchEngine> engines;
+    private final int size;
+
+    /**
+     * @param size The number of engines, each with its own table and thread.
+     * @param book The opening book all engines play from, or null for none.
+     */
+    EnginePool(int size, OpeningBook book) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1: " + size);
+        }
+        this.size = size;
+        engines = ThreadLocal.withInitial(() -> {
+            SearchEngine engine = new SearchEngine();
+            engine.setOpeningBook(book);
+            return engine;
+        });
+        threads = Executors.newFixedThreadPool(size, r -> {
+            Thread t = new Thread(r, "engine");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Returns one engine per core but one, leaving a core to the connection carriers. */
+    static int defaultSize() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /** Searches on the next free engine and waits for it without holding a carrier. */
+    SearchResult search(Board position, SearchLimits limits) throws InterruptedException {
+        Future<SearchResult> result = threads.submit(() -> engines.get().search(position, limits));
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Engine search failed", e.getCause());
+        }
+    }
+
+    void shutdown() {
+        threads.shutdownNow();
+    }
+}
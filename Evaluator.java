@@ -0,0 +1,97 @@
+package com.example.slide.logic;
+
+/**
+ * Static evaluation of a position for the search. A position is scored
+ * from {@link GameBoard#POSITION_SCORES} for every token plus a score per
+ * line read from {@link #LINE_SCORES}, which rewards lines still open to
+ * only one player more the more tokens they hold. Both parts are table
+ * lookups: the positional part per row pattern and the line part per line
+ * pattern, so nothing walks the cells.
+ */
+public final class Evaluator {
+
+    /** Bonus for an open line holding 0-5 tokens of one player. */
+    private static final int[] LINE_WEIGHTS = {0, 1, 4, 16, 64, 0};
+
+    /** Score of a line from X's point of view, indexed by its base-3 SlideTable code. */
+    static final int[] LINE_SCORES = new int[SlideTable.CODES];
+
+    /** Base-3 code of a line with the 5-bit cell pattern as its X cells. */
+    private static final int[] BINARY_TO_TERNARY = new int[1 << SlideTable.LINE];
+
+    /** Positional score of the 5-bit cell pattern of each row. */
+    private static final int[][] ROW_SCORES = new int[BitBoard.DIM][1 << BitBoard.DIM];
+
+    // Multipliers gathering the cells of a column or the main diagonal into bits 20-24
+    private static final int COLUMN_GATHER = 1 << 4 | 1 << 8 | 1 << 12 | 1 << 16 | 1 << 20;
+    private static final int DIAGONAL_GATHER = 1 | 1 << 5 | 1 << 10 | 1 << 15 | 1 << 20;
+    private static final int COLUMN_BITS = 1 | 1 << 5 | 1 << 10 | 1 << 15 | 1 << 20;
+
+    static {
+        for (int code = 0; code < SlideTable.CODES; code++) {
+            int xs = 0;
+            int os = 0;
+            for (int i = 0; i < SlideTable.LINE; i++) {
+                int d = SlideTable.digit(code, i);
+                if (d == SlideTable.X) xs++;
+                if (d == SlideTable.O) os++;
+            }
+            LINE_SCORES[code] = os == 0 ? LINE_WEIGHTS[xs] : xs == 0 ? -LINE_WEIGHTS[os] : 0;
+        }
+        for (int bits = 0; bits < BINARY_TO_TERNARY.length; bits++) {
+            for (int i = 0; i < SlideTable.LINE; i++) {
+                if ((bits & 1 << i) != 0) {
+                    BINARY_TO_TERNARY[bits] += SlideTable.POW3[i];
+                }
+            }
+        }
+        for (int row = 0; row < BitBoard.DIM; row++) {
+            for (int bits = 0; bits < 1 << BitBoard.DIM; bits++) {
+                for (int col = 0; col < BitBoard.DIM; col++) {
+                    if ((bits & 1 << col) != 0) {
+                        ROW_SCORES[row][bits] += GameBoard.POSITION_SCORES[row][col];
+                    }
+                }
+            }
+        }
+    }
+
+    private Evaluator() {
+    }
+
+    /** Returns the score of a position from the point of view of the player to move. */
+    public static int evaluate(BitBoard board) {
+        int x = board.getXMask();
+        int o = board.getOMask();
+        int score = 0;
+        for (int i = 0; i < BitBoard.DIM; i++) {
+            int xRow = (x >>> (i * BitBoard.DIM)) & 0x1F;
+            int oRow = (o >>> (i * BitBoard.DIM)) & 0x1F;
+            score += ROW_SCORES[i][xRow] - ROW_SCORES[i][oRow];
+            score += line(xRow, oRow);
+            score += line(gatherColumn(x >>> i), gatherColumn(o >>> i));
+        }
+        score += line(gatherDiagonal(x), gatherDiagonal(o));
+        score += line(gatherAntiDiagonal(x), gatherAntiDiagonal(o));
+        return board.getCurrentPlayer() == Player.X ? score : -score;
+    }
+
+    private static int line(int xBits, int oBits) {
+        return LINE_SCORES[BINARY_TO_TERNARY[xBits] + 2 * BINARY_TO_TERNARY[oBits]];
+    }
+
+    /** Collects bits 0, 5, 10, 15, 20 into bits 0-4. */
+    private static int gatherColumn(int mask) {
+        return ((mask & COLUMN_BITS) * COLUMN_GATHER) >>> 20 & 0x1F;
+    }
+
+    /** Collects bits 0, 6, 12, 18, 24 into bits 0-4. */
+    private static int gatherDiagonal(int mask) {
+        return ((mask & BitBoard.LINES[2 * BitBoard.DIM]) * DIAGONAL_GATHER) >>> 20 & 0x1F;
+    }
+
+    /** Collects bits 4, 8, 12, 16, 20 into bits 0-4, row 0 first. */
+    private static int gatherAntiDiagonal(int mask) {
+        return (mask >>> 4 & 1) | (mask >>> 7 & 2) | (mask >>> 10 & 4) | (mask >>> 13 & 8) | (mask >>> 16 & 16);
+    }
+}
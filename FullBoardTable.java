@@ -0,0 +1,119 @@
+package com.example.slide.logic;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+/**
+ * Outcome of every full-board position, 2 bits per position: a win for X,
+ * a win for O or a tie. A full board has one pattern of X cells with O on
+ * the rest, so the 2^25 patterns fit in 8 MB.
+ *
+ * <p>A full board ends the game as a win or a tie before anyone moves again,
+ * so the outcome does not depend on the player to move and one table serves
+ * both sides. Each entry is the answer of {@link BitBoard#checkForWin()},
+ * including its rows-first order when both players complete a line.
+ */
+public class FullBoardTable {
+    public static final int POSITIONS = 1 << BitBoard.CELLS;
+
+    private static final int MAGIC = 0x54535442; // "TSTB"
+    private static final int VERSION = 1;
+    private static final int PER_WORD = Long.SIZE / 2;
+    private static final int WORDS = POSITIONS / PER_WORD;
+
+    // 2-bit codes: the ordinal of the winner, BLANK for a tie
+    private static final int TIE = Player.BLANK.ordinal();
+    private static final Player[] CODES = new Player[4];
+
+    static {
+        for (Player p : Player.values()) {
+            CODES[p.ordinal()] = p;
+        }
+    }
+
+    private final long[] words;
+
+    private FullBoardTable(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Computes the table with the common fork/join pool, each task filling
+     * whole words so no two threads write the same one.
+     */
+    public static FullBoardTable generate() {
+        long[] words = new long[WORDS];
+        IntStream.range(0, WORDS).parallel().forEach(w -> {
+            long word = 0;
+            for (int i = 0; i < PER_WORD; i++) {
+                int xMask = w * PER_WORD + i;
+                word |= (long) outcome(xMask) << (2 * i);
+            }
+            words[w] = word;
+        });
+        return new FullBoardTable(words);
+    }
+
+    /** Returns the 2-bit code of the full board with X on {@code xMask} and O everywhere else. */
+    private static int outcome(int xMask) {
+        int oMask = ~xMask & BitBoard.FULL;
+        for (int line : BitBoard.LINES) {
+            if ((xMask & line) == line) return Player.X.ordinal();
+            if ((oMask & line) == line) return Player.O.ordinal();
+        }
+        return TIE;
+    }
+
+    /**
+     * Returns the winner of the full board with X on {@code xMask} and O on
+     * every other cell, or BLANK for a tie.
+     */
+    public Player probe(int xMask) {
+        int code = (int) (words[xMask >>> 5] >>> ((xMask & (PER_WORD - 1)) << 1)) & 3;
+        return CODES[code];
+    }
+
+    /** Counts the positions with each outcome, indexed by the winner's ordinal. */
+    public long[] count() {
+        long[] counts = new long[4];
+        for (long word : words) {
+            for (int i = 0; i < PER_WORD; i++) {
+                counts[(int) (word >>> (2 * i)) & 3]++;
+            }
+        }
+        return counts;
+    }
+
+    /** Writes the table: a magic number, a version, the word count and the words. */
+    public void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(WORDS);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    /** Reads a table written by {@link #write(File)}. */
+    public static FullBoardTable read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != WORDS) {
+                throw new IOException("Not a full-board table: " + file);
+            }
+            long[] words = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                words[i] = in.readLong();
+            }
+            return new FullBoardTable(words);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.slide.tools;
+
+import com.example.slide.logic.FullBoardTable;
+import com.example.slide.logic.Player;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Generates the full-board outcome table, prints how many positions each
+ * player wins and writes it to a file.
+ *
+ * <p>Usage: {@code FullBoardTableTool [file]}
+ */
+public class FullBoardTableTool {
+
+    public static void main(String[] args) throws IOException {
+        File file = new File(args.length > 0 ? args[0] : "fullboard.tstb");
+
+        long start = System.nanoTime();
+        FullBoardTable table = FullBoardTable.generate();
+        System.out.printf("generated %d positions in %.1f ms%n", FullBoardTable.POSITIONS, (System.nanoTime() - start) / 1e6);
+
+        long[] counts = table.count();
+        System.out.printf("X wins %d, O wins %d, ties %d%n",
+                counts[Player.X.ordinal()], counts[Player.O.ordinal()], counts[Player.BLANK.ordinal()]);
+
+        table.write(file);
+        System.out.println("wrote " + file + " (" + file.length() + " bytes)");
+    }
+}
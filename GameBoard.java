@@ -1,16 +1,42 @@
 package com.example.slide.logic;
 
-import android.util.Log;
-import java.util.logging.Logger;
-
-public class GameBoard {
+public class GameBoard implements Board {
     private Player[][] grid;
     private final int DIM = 5;
     private Player currentPlayer;
-    private static final Logger logger = Logger.getLogger(GameBoard.class.getName());
+
+    /** Number of occurrences of a position that makes the game a draw. */
+    public static final int REPETITION_LIMIT = 3;
+    private static final int HISTORY_SIZE = 256;
+
+    private long hash;
+    private final PositionHistory history = new PositionHistory(HISTORY_SIZE);
+
+    // Ring of move deltas for unmakeMove; each entry packs the move character (bits 0-15),
+    // the cell the slide filled (16-18), the pushed-off token (19-20) and whether the turn passed (21)
+    private static final int UNDO_SIZE = 128;
+    private static final Player[] TOKENS = Player.values();
+    private final int[] undoStack = new int[UNDO_SIZE];
+    private int undoTop;
+    private int undoSize;
+    private int lastFilled;
+    private Player lastPushedOff;
+
+    // Base-3 SlideTable code of each of the 12 lines (rows, columns, main diagonal,
+    // anti-diagonal), kept up to date by setCell for just the lines a cell lies on
+    private static final int LINES = 2 * 5 + 2;
+    private static final int[] DIGITS = {SlideTable.X, SlideTable.O, SlideTable.BLANK, SlideTable.BLANK};
+    private final int[] lineCodes = new int[LINES];
+    private int filled;
+    private int positional;
+
+    // The outcome is computed at most once per board version
+    private long version;
+    private long outcomeVersion = -1;
+    private Player outcome;
 
     // Scoring system for strategic positions
-    private static final int[][] POSITION_SCORES = {
+    static final int[][] POSITION_SCORES = {
             {3, 2, 3, 2, 3}, // Row A
             {2, 4, 4, 4, 2}, // Row B
             {3, 4, 5, 4, 3}, // Row C (center has the highest score)
@@ -20,17 +46,26 @@ public class GameBoard {
 
     public GameBoard() {
         grid = new Player[DIM][DIM];
-        clear();
+        for (int i = 0; i < DIM; i++) {
+            for (int j = 0; j < DIM; j++) {
+                grid[i][j] = Player.BLANK;
+            }
+        }
         currentPlayer = Player.X;
+        clear();
     }
 
     /** Resets the game board to its initial state. */
     public void clear() {
         for (int i = 0; i < DIM; i++) {
             for (int j = 0; j < DIM; j++) {
-                grid[i][j] = Player.BLANK;
+                setCell(i, j, Player.BLANK);
             }
         }
+        hash = (currentPlayer == Player.O) ? Zobrist.SIDE : 0L;
+        history.clear();
+        history.push(hash);
+        undoSize = 0;
     }
 
     /** Processes a move by sliding tokens in the chosen row or column.
@@ -38,63 +73,158 @@ public class GameBoard {
      * @return true if the move was successful, false otherwise.
      */
     public boolean submitMove(char move) {
-        Log.d("GameBoard", "Submitting move: " + move);
         boolean moveSuccessful = false;
+        boolean slid = false;
 
         if (move >= '1' && move <= '5') {
             int col = move - '1';
-            moveSuccessful = slideColumn(col);
+            moveSuccessful = slideColumn(col, currentPlayer);
+            slid = true;
         } else if (move >= 'A' && move <= 'E') {
             int row = move - 'A';
-            moveSuccessful = slideRow(row);
+            moveSuccessful = slideRow(row, currentPlayer);
+            slid = true;
         }
 
         if (moveSuccessful) {
             togglePlayer();
+        }
+        Tracer tracer = Instrumentation.tracer();
+        if (slid) {
+            recordMove(move, moveSuccessful);
+            if (Instrumentation.ENABLED) Instrumentation.count(Instrumentation.Counter.MOVES_APPLIED);
+            if (tracer != null) tracer.onMove(this, move, moveSuccessful);
         } else {
-            Log.d("GameBoard", "Invalid move: " + move);
+            if (Instrumentation.ENABLED) Instrumentation.count(Instrumentation.Counter.ILLEGAL_MOVES);
+            if (tracer != null) tracer.onIllegalMove(move);
         }
 
         return moveSuccessful;
     }
 
     /** Slides tokens in the specified column downwards. */
-    private boolean slideColumn(int col) {
-        Player newVal = currentPlayer;
+    private boolean slideColumn(int col, Player token) {
+        Player newVal = token;
         for (int i = 0; i < DIM; i++) {
             if (grid[i][col] == Player.BLANK) {
-                grid[i][col] = newVal;
-                Log.d("GameBoard", "Move accepted at [" + i + "][" + col + "]");
+                setCell(i, col, newVal);
+                lastFilled = i;
+                lastPushedOff = Player.BLANK;
                 return true;
             } else {
                 Player temp = grid[i][col];
-                grid[i][col] = newVal;
+                setCell(i, col, newVal);
                 newVal = temp;
             }
         }
+        lastFilled = DIM - 1;
+        lastPushedOff = newVal;
         return false;
     }
 
     /** Slides tokens in the specified row to the right. */
-    private boolean slideRow(int row) {
-        Player newVal = currentPlayer;
+    private boolean slideRow(int row, Player token) {
+        Player newVal = token;
         for (int i = 0; i < DIM; i++) {
             if (grid[row][i] == Player.BLANK) {
-                grid[row][i] = newVal;
-                Log.d("GameBoard", "Move accepted at [" + row + "][" + i + "]");
+                setCell(row, i, newVal);
+                lastFilled = i;
+                lastPushedOff = Player.BLANK;
                 return true;
             } else {
                 Player temp = grid[row][i];
-                grid[row][i] = newVal;
+                setCell(row, i, newVal);
                 newVal = temp;
             }
         }
+        lastFilled = DIM - 1;
+        lastPushedOff = newVal;
         return false;
     }
 
+    /** Pushes the delta of the slide just made onto the undo ring and the position history. */
+    private void recordMove(char move, boolean toggled) {
+        undoStack[undoTop] = move | lastFilled << 16 | lastPushedOff.ordinal() << 19 | (toggled ? 1 << 21 : 0);
+        undoTop = (undoTop + 1) % UNDO_SIZE;
+        undoSize = Math.min(undoSize + 1, UNDO_SIZE);
+        history.push(hash);
+    }
+
+    /**
+     * Takes back the last move made with submitMove or simulateMove, restoring the
+     * cells, the pushed-off token, the player to move and the hash exactly.
+     * Up to the last 128 moves can be taken back.
+     */
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        undoTop = (undoTop + UNDO_SIZE - 1) % UNDO_SIZE;
+        undoSize--;
+        int entry = undoStack[undoTop];
+        char move = (char) (entry & 0xFFFF);
+        int filled = (entry >>> 16) & 7;
+        Player pushedOff = TOKENS[(entry >>> 19) & 3];
+
+        if ((entry & 1 << 21) != 0) {
+            togglePlayer();
+        }
+        if (move >= '1' && move <= '5') {
+            int col = move - '1';
+            for (int i = 0; i < filled; i++) {
+                setCell(i, col, grid[i + 1][col]);
+            }
+            setCell(filled, col, pushedOff);
+        } else {
+            int row = move - 'A';
+            for (int i = 0; i < filled; i++) {
+                setCell(row, i, grid[row][i + 1]);
+            }
+            setCell(row, filled, pushedOff);
+        }
+        history.pop();
+    }
+
+    /** Returns the number of moves that can be taken back with unmakeMove. */
+    public int getUndoSize() {
+        return undoSize;
+    }
+
+    /**
+     * Replaces the token in a cell, XORing the old token out of the hash and the new one in
+     * and updating the codes of the lines through the cell.
+     */
+    private void setCell(int row, int col, Player p) {
+        Player old = grid[row][col];
+        if (old == p) {
+            return;
+        }
+        int cell = row * DIM + col;
+        hash ^= Zobrist.key(old, cell) ^ Zobrist.key(p, cell);
+        grid[row][col] = p;
+
+        int delta = DIGITS[p.ordinal()] - DIGITS[old.ordinal()];
+        lineCodes[row] += delta * SlideTable.POW3[col];
+        lineCodes[DIM + col] += delta * SlideTable.POW3[row];
+        if (row == col) {
+            lineCodes[2 * DIM] += delta * SlideTable.POW3[row];
+        }
+        if (row + col == DIM - 1) {
+            lineCodes[2 * DIM + 1] += delta * SlideTable.POW3[row];
+        }
+        filled += (p != Player.BLANK ? 1 : 0) - (old != Player.BLANK ? 1 : 0);
+        positional += POSITION_SCORES[row][col] * (sign(p) - sign(old));
+        version++;
+    }
+
+    private static int sign(Player p) {
+        return p == Player.X ? 1 : p == Player.O ? -1 : 0;
+    }
+
     /** Toggles the current player between X and O. */
     private void togglePlayer() {
         currentPlayer = (currentPlayer == Player.X) ? Player.O : Player.X;
+        hash ^= Zobrist.SIDE;
     }
 
     /** Returns the score of a specific grid position based on its strategic importance.
@@ -108,149 +238,91 @@ public class GameBoard {
         return POSITION_SCORES[rowIndex][colIndex];
     }
 
-    /** Simulates placing a move temporarily for a specific player. */
+    /**
+     * Simulates a move temporarily for a specific player. The slide pushes tokens
+     * exactly like submitMove, but the player to move does not change.
+     */
     public void simulateMove(char move, Player player) {
         if (move >= '1' && move <= '5') {
-            int col = move - '1';
-            simulateColumn(col, player);
+            slideColumn(move - '1', player);
+            recordMove(move, false);
         } else if (move >= 'A' && move <= 'E') {
-            int row = move - 'A';
-            simulateRow(row, player);
+            slideRow(move - 'A', player);
+            recordMove(move, false);
         }
     }
 
-    private void simulateColumn(int col, Player player) {
-        for (int i = 0; i < DIM; i++) {
-            if (grid[i][col] == Player.BLANK) {
-                grid[i][col] = player;
-                break;
-            }
-        }
-    }
-
-    private void simulateRow(int row, Player player) {
-        for (int i = 0; i < DIM; i++) {
-            if (grid[row][i] == Player.BLANK) {
-                grid[row][i] = player;
-                break;
-            }
-        }
-    }
-
-    /** Undoes a simulated move by clearing the last move in the specified row or column. */
+    /** Undoes the last simulated move, which must have been made in the specified row or column. */
     public void undoMove(char move) {
-        if (move >= '1' && move <= '5') {
-            int col = move - '1';
-            undoColumn(col);
-        } else if (move >= 'A' && move <= 'E') {
-            int row = move - 'A';
-            undoRow(row);
+        if (undoSize == 0 || (char) (undoStack[(undoTop + UNDO_SIZE - 1) % UNDO_SIZE] & 0xFFFF) != move) {
+            throw new IllegalStateException("Last move was not " + move);
         }
+        unmakeMove();
     }
 
-    private void undoColumn(int col) {
-        for (int i = DIM - 1; i >= 0; i--) {
-            if (grid[i][col] != Player.BLANK) {
-                grid[i][col] = Player.BLANK;
-                break;
-            }
+    /**
+     * Checks for a winning sequence in rows, columns, and diagonals.
+     * The answer is cached until the board next changes.
+     */
+    public Player checkForWin() {
+        if (Instrumentation.ENABLED) Instrumentation.count(Instrumentation.Counter.WIN_CHECKS);
+        if (outcomeVersion != version) {
+            outcome = scanForWin();
+            outcomeVersion = version;
         }
+        return outcome;
     }
 
-    private void undoRow(int row) {
-        for (int i = DIM - 1; i >= 0; i--) {
-            if (grid[row][i] != Player.BLANK) {
-                grid[row][i] = Player.BLANK;
-                break;
+    /** Checks the line codes for a winner without the cache of {@link #checkForWin()}. */
+    public Player scanForWin() {
+        for (int code : lineCodes) {
+            int winner = SlideTable.WINNER[code];
+            if (winner != SlideTable.BLANK) {
+                return SlideTable.token(winner);
             }
         }
+        return Player.BLANK;
     }
 
-    /** Checks for a winning sequence in rows, columns, and diagonals. */
-    public Player checkForWin() {
-        Player winner = checkRows();
-        if (winner != Player.BLANK) return winner;
-        winner = checkColumns();
-        if (winner != Player.BLANK) return winner;
-        winner = checkDiagonals();
-        return winner;
+    /** Checks if the game is a tie. */
+    public boolean checkForTie() {
+        return isFull() && checkForWin() == Player.BLANK; // Tie if full and no winner
     }
 
-    private Player checkRows() {
-        for (int i = 0; i < DIM; i++) {
-            if (grid[i][0] != Player.BLANK && allEqual(grid[i])) {
-                return grid[i][0];
-            }
-        }
-        return Player.BLANK;
+    public boolean isFull() {
+        return filled == DIM * DIM;
     }
 
-    private Player checkColumns() {
-        for (int col = 0; col < DIM; col++) {
-            Player candidate = grid[0][col];
-            if (candidate != Player.BLANK) {
-                boolean isWin = true;
-                for (int row = 1; row < DIM; row++) {
-                    if (grid[row][col] != candidate) {
-                        isWin = false;
-                        break;
-                    }
-                }
-                if (isWin) return candidate;
-            }
+    /**
+     * Returns the static evaluation of the position from the point of view of the
+     * player to move, read from the per-line tables of {@link Evaluator}.
+     */
+    public int evaluate() {
+        int score = positional;
+        for (int code : lineCodes) {
+            score += Evaluator.LINE_SCORES[code];
         }
-        return Player.BLANK;
+        return currentPlayer == Player.X ? score : -score;
     }
 
-    private Player checkDiagonals() {
-        // Main diagonal
-        Player candidate = grid[0][0];
-        if (candidate != Player.BLANK) {
-            boolean isWin = true;
-            for (int i = 1; i < DIM; i++) {
-                if (grid[i][i] != candidate) {
-                    isWin = false;
-                    break;
-                }
-            }
-            if (isWin) return candidate;
-        }
-
-        // Anti-diagonal
-        candidate = grid[0][DIM - 1];
-        if (candidate != Player.BLANK) {
-            boolean isWin = true;
-            for (int i = 1; i < DIM; i++) {
-                if (grid[i][DIM - 1 - i] != candidate) {
-                    isWin = false;
-                    break;
-                }
-            }
-            if (isWin) return candidate;
-        }
+    /** Returns the token at the given cell (row 0 is 'A', column 0 is '1'). */
+    public Player getCell(int row, int col) {
+        return grid[row][col];
+    }
 
-        return Player.BLANK;
+    /** Returns the 64-bit hash of the position, including the player to move. */
+    public long getHash() {
+        return hash;
     }
 
-    /** Checks if all elements in a row are the same. */
-    private boolean allEqual(Player[] row) {
-        Player first = row[0];
-        for (Player p : row) {
-            if (p != first) return false;
-        }
-        return true;
+    /** Returns how many times the current position has occurred in the recent history. */
+    public int getRepetitionCount() {
+        return history.count(hash);
     }
 
-    /** Checks if the game is a tie. */
-    public boolean checkForTie() {
-        for (int i = 0; i < DIM; i++) {
-            for (int j = 0; j < DIM; j++) {
-                if (grid[i][j] == Player.BLANK) {
-                    return false; // Available move found
-                }
-            }
-        }
-        return checkForWin() == Player.BLANK; // Tie if no winner
+    /** Checks if the current position has repeated often enough to draw the game. */
+    public boolean isDrawByRepetition() {
+        return getRepetitionCount() >= REPETITION_LIMIT;
     }
 
     public Player getCurrentPlayer() {
@@ -0,0 +1,360 @@
+package com.example.slide.logic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of played games.
+ *
+ * <p>The file is a sequence of records: a varint payload length, the
+ * payload and a CRC-32 of the payload (4 bytes, big-endian). A payload
+ * starts with the wall-clock time in milliseconds as a varint, followed by
+ * entries. Each entry is one varint of {@code delta << 4 | code}, where
+ * delta is the milliseconds since the previous entry (or the payload's
+ * time) and code is one of:
+ * <ul>
+ * <li>0-9: a move, by its index on the game's board: the columns from '1'
+ *     then the rows from 'A', as in {@link BitBoard#moveIndex(char)} on 5x5;</li>
+ * <li>{@link #GAME_START}, followed by one byte with the {@link GameMode} ordinal;</li>
+ * <li>{@link #GAME_END}, followed by one byte with the winner's {@link Player} ordinal;</li>
+ * <li>{@link #VARIANT_START}, a game on a {@link SquareBoard} other than
+ *     5x5 with a win length of 5, followed by one byte each with the mode
+ *     ordinal, the board size and the win length;</li>
+ * <li>{@link #WIDE_MOVE}, followed by one byte with a move index of 10 or
+ *     more, which only boards larger than 5x5 have.</li>
+ * </ul>
+ * A move made within 8 ms of the last takes one byte and a move made within
+ * a second takes two. Moves belong to the board of the latest game start,
+ * 5x5 before any.
+ *
+ * <p>Calls from the game only append to a buffer in memory. A single
+ * background thread writes the buffer as one record every
+ * {@link #FLUSH_MILLIS} ms or once it holds {@link #FLUSH_BYTES} bytes, so
+ * the caller never touches the disk. When the journal opens, the background
+ * thread checks the existing records and cuts off a torn or corrupt tail
+ * left by a crash, so later records stay readable.
+ */
+public class GameJournal {
+    public static final int GAME_START = 10;
+    public static final int GAME_END = 11;
+    public static final int VARIANT_START = 12;
+    public static final int WIDE_MOVE = 13;
+
+    static final long FLUSH_MILLIS = 2_000;
+    static final int FLUSH_BYTES = 4096;
+    private static final int CRC_BYTES = 4;
+    private static final int MAX_RECORD = 1 << 20;
+
+    /** Receives the entries of a journal in order. */
+    public interface Visitor {
+        /** @param dim The board size, 5 for the standard game. */
+        void onGameStart(long timeMillis, GameMode mode, int dim, int winLength);
+
+        void onMove(long timeMillis, char move);
+
+        void onGameEnd(long timeMillis, Player winner);
+    }
+
+    private final File file;
+    private final ScheduledExecutorService writer;
+
+    // Guarded by this
+    private byte[] buffer = new byte[FLUSH_BYTES * 2];
+    private int size;
+    private long lastMillis;
+    private int dim = BitBoard.DIM;
+    private boolean flushQueued;
+    private boolean closed;
+
+    // Writer thread only
+    private FileChannel channel;
+    private final CRC32 crc = new CRC32();
+
+    /** Opens a journal; the file is opened and recovered on the background thread. */
+    public GameJournal(File file) {
+        this.file = file;
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "game-journal");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.execute(this::openFile);
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public void startGame(GameMode mode) {
+        startGame(mode, BitBoard.DIM, BitBoard.DIM);
+    }
+
+    /** Starts a game on a board of the given size and win length; 5 and 5 is the standard game. */
+    public synchronized void startGame(GameMode mode, int dim, int winLength) {
+        this.dim = dim;
+        if (dim == BitBoard.DIM && winLength == BitBoard.DIM) {
+            append(GAME_START, mode.ordinal());
+        } else {
+            append(VARIANT_START, mode.ordinal());
+            appendByte(dim);
+            appendByte(winLength);
+        }
+    }
+
+    public synchronized void recordMove(char move) {
+        int index = moveIndex(move, dim);
+        if (index >= BitBoard.MOVES) {
+            append(WIDE_MOVE, index);
+        } else if (index >= 0) {
+            append(index, -1);
+        }
+    }
+
+    /** Returns the index of a move on a board of the given size, or -1. */
+    private static int moveIndex(char move, int dim) {
+        if (move >= '1' && move < '1' + dim) {
+            return move - '1';
+        }
+        if (move >= 'A' && move < 'A' + dim) {
+            return dim + move - 'A';
+        }
+        return -1;
+    }
+
+    private static char moveChar(int index, int dim) {
+        return index < dim ? (char) ('1' + index) : (char) ('A' + index - dim);
+    }
+
+    /** @param winner The winner, or BLANK for a tie or a draw. */
+    public void endGame(Player winner) {
+        append(GAME_END, winner.ordinal());
+    }
+
+    /** Writes what is buffered and stops the background thread, without waiting for it. */
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        writer.execute(() -> {
+            flush();
+            closeFile();
+        });
+        writer.shutdown();
+    }
+
+    /** Waits for a close to finish writing; for tools and tests, never the UI thread. */
+    public boolean awaitClosed(long timeoutMillis) throws InterruptedException {
+        return writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void append(int code, int extra) {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (size + 2 * 10 + 1 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        if (size == 0) {
+            size = putVarint(buffer, size, now);
+            lastMillis = now;
+        }
+        long delta = Math.max(0, now - lastMillis);
+        lastMillis = now;
+        size = putVarint(buffer, size, delta << 4 | code);
+        if (extra >= 0) {
+            buffer[size++] = (byte) extra;
+        }
+        if (size >= FLUSH_BYTES && !flushQueued) {
+            flushQueued = true;
+            writer.execute(this::flush);
+        }
+    }
+
+    /** Appends one more byte to the entry just appended. */
+    private synchronized void appendByte(int b) {
+        if (closed) {
+            return;
+        }
+        if (size + 1 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[size++] = (byte) b;
+    }
+
+    /** Writes the buffer as one record. Runs on the writer thread. */
+    private void flush() {
+        byte[] payload;
+        int length;
+        synchronized (this) {
+            if (size == 0) {
+                return;
+            }
+            payload = buffer;
+            length = size;
+            buffer = new byte[Math.max(FLUSH_BYTES * 2, size + FLUSH_BYTES)];
+            size = 0;
+            flushQueued = false;
+        }
+        if (channel == null) {
+            return;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+        ByteBuffer record = ByteBuffer.allocate(5 + length + CRC_BYTES);
+        byte[] header = new byte[5];
+        int headerLength = putVarint(header, 0, length);
+        record.put(header, 0, headerLength).put(payload, 0, length).putInt((int) crc.getValue()).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            DebugLog.d("GameJournal", "Journal write failed: " + e);
+        }
+    }
+
+    /** Opens the file and cuts it after the last intact record. Runs on the writer thread. */
+    private void openFile() {
+        try {
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            long valid = read(channel, null);
+            if (valid < channel.size()) {
+                DebugLog.d("GameJournal", "Dropping " + (channel.size() - valid) + " bytes of torn journal tail");
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+        } catch (IOException e) {
+            DebugLog.d("GameJournal", "Journal unavailable: " + e);
+            channel = null;
+        }
+    }
+
+    private void closeFile() {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException e) {
+            DebugLog.d("GameJournal", "Journal close failed: " + e);
+        }
+    }
+
+    /**
+     * Reads a journal file, stopping quietly at a torn or corrupt tail.
+     * @return The length of the intact part of the file.
+     */
+    public static long read(File file, Visitor visitor) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            return read(channel, visitor);
+        }
+    }
+
+    private static long read(FileChannel channel, Visitor visitor) throws IOException {
+        // Read into the heap rather than map, so the file can be truncated right after
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE));
+        while (data.hasRemaining() && channel.read(data, data.position()) > 0) {
+            // keep reading
+        }
+        data.flip();
+        CRC32 crc = new CRC32();
+        int valid = 0;
+        while (data.hasRemaining()) {
+            long length = getVarint(data);
+            if (length < 0 || length > MAX_RECORD || data.remaining() < length + CRC_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[(int) length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if (data.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            if (visitor != null && !decode(ByteBuffer.wrap(payload), visitor)) {
+                break;
+            }
+            valid = data.position();
+        }
+        return valid;
+    }
+
+    /** Decodes one payload; returns false if it is malformed. */
+    private static boolean decode(ByteBuffer payload, Visitor visitor) {
+        long time = getVarint(payload);
+        GameMode[] modes = GameMode.values();
+        Player[] players = Player.values();
+        int dim = BitBoard.DIM;
+        while (time >= 0 && payload.hasRemaining()) {
+            long entry = getVarint(payload);
+            if (entry < 0) {
+                return false;
+            }
+            time += entry >>> 4;
+            int code = (int) entry & 0xF;
+            if (code < BitBoard.MOVES) {
+                if (code >= 2 * dim) return false;
+                visitor.onMove(time, moveChar(code, dim));
+            } else if (code == WIDE_MOVE && payload.hasRemaining()) {
+                int index = payload.get();
+                if (index < BitBoard.MOVES || index >= 2 * dim) return false;
+                visitor.onMove(time, moveChar(index, dim));
+            } else if (code == GAME_START && payload.hasRemaining()) {
+                int mode = payload.get();
+                if (mode < 0 || mode >= modes.length) return false;
+                dim = BitBoard.DIM;
+                visitor.onGameStart(time, modes[mode], dim, dim);
+            } else if (code == VARIANT_START && payload.remaining() >= 3) {
+                int mode = payload.get();
+                int size = payload.get();
+                int winLength = payload.get();
+                if (mode < 0 || mode >= modes.length || size < SquareBoard.MIN_DIM || size > SquareBoard.MAX_DIM
+                        || winLength < SquareBoard.MIN_WIN_LENGTH || winLength > size) return false;
+                dim = size;
+                visitor.onGameStart(time, modes[mode], dim, winLength);
+            } else if (code == GAME_END && payload.hasRemaining()) {
+                int winner = payload.get();
+                if (winner < 0 || winner >= players.length) return false;
+                visitor.onGameEnd(time, players[winner]);
+            } else {
+                return false;
+            }
+        }
+        return time >= 0;
+    }
+
+    private static int putVarint(byte[] out, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[offset++] = (byte) value;
+        return offset;
+    }
+
+    /** Returns the next varint, or -1 if the data ends inside it or it is too long. */
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+}
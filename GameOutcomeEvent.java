@@ -0,0 +1,21 @@
+package com.example.slide.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** The end of a game. */
+@Name("com.example.slide.GameOutcome")
+@Label("Game Outcome")
+@Category("Tic-Tac-Slide")
+@StackTrace(false)
+public class GameOutcomeEvent extends jdk.jfr.Event {
+    @Label("Winner")
+    @Description("X, O, or BLANK for a tie or a draw")
+    String winner;
+
+    @Label("Moves")
+    int moves;
+}
@@ -0,0 +1,381 @@
+package com.example.slide.tools;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.Evaluator;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.Symmetry;
+import com.example.slide.logic.Zobrist;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays a file of game records, one game per line as move characters
+ * ("3CA15E..."), and prints aggregate statistics: the outcome per opening,
+ * the average game length, how often each line wins, and the positions
+ * where the static evaluation swings the most often.
+ *
+ * <p>The file is memory-mapped and split into one chunk per task on line
+ * boundaries. Each task reads the bytes of its mapping and plays them on a
+ * {@link BitBoard} directly, so no String is created per record.
+ *
+ * <p>Usage: {@code GameRecordAnalyzer file [threads] [openingPlies] [swingThreshold]}
+ * <br>or {@code GameRecordAnalyzer generate file games} to write random records.
+ * A swing threshold of 0 turns off swing tracking, the only per-move cost
+ * beyond replaying.
+ */
+public class GameRecordAnalyzer {
+
+    private static final long MAX_CHUNK = 1L << 30;
+    private static final int MAX_PLIES = 1000;
+    private static final int MAX_SWING_POSITIONS = 1 << 18;
+    private static final int TOP = 10;
+    private static final int GENERATED_PLIES = 200;
+    private static final String[] LINE_NAMES = {
+            "row A", "row B", "row C", "row D", "row E",
+            "column 1", "column 2", "column 3", "column 4", "column 5",
+            "diagonal", "anti-diagonal"};
+
+    // Outcome slots
+    private static final int X_WINS = 0;
+    private static final int O_WINS = 1;
+    private static final int NO_WINNER = 2;
+
+    /** Statistics of one chunk, merged into the total when the chunk is done. */
+    static final class Stats {
+        final int openingPlies;
+        final long[] openings;
+        final long[] lineWins = new long[2 * LINE_NAMES.length];
+        final SwingCounts swings = new SwingCounts();
+        long games;
+        long plies;
+        long malformed;
+
+        Stats(int openingPlies) {
+            this.openingPlies = openingPlies;
+            int codes = 1;
+            for (int i = 0; i < openingPlies; i++) {
+                codes *= BitBoard.MOVES + 1;
+            }
+            openings = new long[3 * codes];
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < openings.length; i++) {
+                openings[i] += other.openings[i];
+            }
+            for (int i = 0; i < lineWins.length; i++) {
+                lineWins[i] += other.lineWins[i];
+            }
+            swings.merge(other.swings);
+            games += other.games;
+            plies += other.plies;
+            malformed += other.malformed;
+        }
+    }
+
+    /**
+     * Counts per position in an open-addressed table of primitives, so
+     * counting a swing does not box. Once the table is full, new positions
+     * are dropped and known ones are still counted.
+     */
+    static final class SwingCounts {
+        private static final long EMPTY = -1L;
+
+        private final long[] keys = new long[2 * MAX_SWING_POSITIONS];
+        private final int[] counts = new int[2 * MAX_SWING_POSITIONS];
+        private final int mask = keys.length - 1;
+        private int size;
+
+        SwingCounts() {
+            Arrays.fill(keys, EMPTY);
+        }
+
+        void add(long key, int count) {
+            int i = (int) Zobrist.mix(key) & mask;
+            while (keys[i] != EMPTY && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == EMPTY) {
+                if (size == MAX_SWING_POSITIONS) {
+                    return;
+                }
+                keys[i] = key;
+                size++;
+            }
+            counts[i] += count;
+        }
+
+        int get(long key) {
+            int i = (int) Zobrist.mix(key) & mask;
+            while (keys[i] != EMPTY) {
+                if (keys[i] == key) {
+                    return counts[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return 0;
+        }
+
+        void merge(SwingCounts other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.keys[i] != EMPTY) {
+                    add(other.keys[i], other.counts[i]);
+                }
+            }
+        }
+
+        /** Returns the keys of the n highest counts, highest first. */
+        long[] top(int n) {
+            long[] best = new long[Math.min(n, size)];
+            int[] bestCounts = new int[best.length];
+            int filled = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == EMPTY) {
+                    continue;
+                }
+                int j = filled < best.length ? filled++ : best.length;
+                while (j > 0 && bestCounts[j - 1] < counts[i]) {
+                    if (j < best.length) {
+                        best[j] = best[j - 1];
+                        bestCounts[j] = bestCounts[j - 1];
+                    }
+                    j--;
+                }
+                if (j < best.length) {
+                    best[j] = keys[i];
+                    bestCounts[j] = counts[i];
+                }
+            }
+            return best;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length == 0) {
+            System.err.println("Usage: GameRecordAnalyzer file [threads] [openingPlies] [swingThreshold]");
+            return;
+        }
+        if (args[0].equals("generate")) {
+            generate(args[1], Integer.parseInt(args[2]));
+            return;
+        }
+        String file = args[0];
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int openingPlies = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int swingThreshold = args.length > 3 ? Integer.parseInt(args[3]) : 40;
+
+        long start = System.nanoTime();
+        long bytes;
+        Stats total;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            bytes = channel.size();
+            total = analyze(channel, threads, openingPlies, swingThreshold);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(total);
+        System.out.printf(Locale.ROOT, "%n%d bytes in %.2f s: %.1f MB/s, %.0f games/s%n",
+                bytes, seconds, bytes / seconds / 1e6, total.games / seconds);
+    }
+
+    /**
+     * Splits the file on line boundaries and replays the chunks in parallel.
+     * Each chunk's Stats is merged as soon as it is done, and no more chunks
+     * than threads are in flight, so at most that many per-chunk Stats (each
+     * with its own swing table) are alive at once.
+     */
+    static Stats analyze(FileChannel channel, int threads, int openingPlies, int swingThreshold)
+            throws IOException, InterruptedException, ExecutionException {
+        long size = channel.size();
+        long chunk = Math.max(1, Math.min(MAX_CHUNK, (size + threads - 1) / threads));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Stats> parts = new ExecutorCompletionService<>(pool);
+            Stats total = new Stats(openingPlies);
+            int inFlight = 0;
+            long begin = 0;
+            while (begin < size || inFlight > 0) {
+                if (begin < size && inFlight < threads) {
+                    long end = nextLineStart(channel, Math.min(size, begin + chunk));
+                    MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, begin, end - begin);
+                    parts.submit(() -> replay(map, openingPlies, swingThreshold));
+                    inFlight++;
+                    begin = end;
+                } else {
+                    total.merge(parts.take().get());
+                    inFlight--;
+                }
+            }
+            return total;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Returns the offset just past the next newline at or after {@code offset}, or the file size. */
+    private static long nextLineStart(FileChannel channel, long offset) throws IOException {
+        long size = channel.size();
+        if (offset >= size) {
+            return size;
+        }
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = offset;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /** Replays every record of a chunk; a swing threshold of 0 skips the evaluation. */
+    static Stats replay(MappedByteBuffer map, int openingPlies, int swingThreshold) {
+        Stats stats = new Stats(openingPlies);
+        BitBoard board = new BitBoard();
+        boolean swings = swingThreshold > 0;
+        int limit = map.limit();
+        int i = 0;
+        while (i < limit) {
+            board.reset();
+            int plies = 0;
+            int opening = 0;
+            boolean valid = true;
+            int previous = swings ? Evaluator.evaluate(board) : 0;
+            byte b;
+            // One record: replay until the end of the line
+            while (i < limit && (b = map.get(i++)) != '\n') {
+                if (b == '\r' || !valid) {
+                    continue;
+                }
+                int move = BitBoard.moveIndex((char) b);
+                if (move < 0 || plies == MAX_PLIES || board.checkForWin() != Player.BLANK || board.isFull()) {
+                    valid = false;
+                    continue;
+                }
+                if (plies < openingPlies) {
+                    opening = opening * (BitBoard.MOVES + 1) + move + 1;
+                }
+                board.applyMove(move);
+                plies++;
+
+                if (swings) {
+                    // Evaluation from X's side, so a swing is comparable across moves
+                    int eval = Evaluator.evaluate(board);
+                    if (board.getCurrentPlayer() == Player.O) {
+                        eval = -eval;
+                    }
+                    if (Math.abs(eval - previous) >= swingThreshold) {
+                        stats.swings.add(Symmetry.canonicalKey(board.key()), 1);
+                    }
+                    previous = eval;
+                }
+            }
+            if (plies == 0 && valid) {
+                continue; // blank line
+            }
+            if (!valid) {
+                stats.malformed++;
+                continue;
+            }
+            for (int p = plies; p < openingPlies; p++) {
+                opening *= BitBoard.MOVES + 1;
+            }
+            Player winner = board.checkForWin();
+            int outcome = winner == Player.X ? X_WINS : winner == Player.O ? O_WINS : NO_WINNER;
+            stats.openings[3 * opening + outcome]++;
+            if (winner != Player.BLANK) {
+                stats.lineWins[2 * board.winningLine() + outcome]++;
+            }
+            stats.games++;
+            stats.plies += plies;
+        }
+        return stats;
+    }
+
+    private static void report(Stats stats) {
+        System.out.printf(Locale.ROOT, "%d games, %d malformed, average length %.2f moves%n",
+                stats.games, stats.malformed, stats.games > 0 ? (double) stats.plies / stats.games : 0);
+
+        System.out.println("\nOutcome per opening (most played first):");
+        System.out.printf("  %-8s %10s %8s %8s %8s%n", "opening", "games", "X wins", "O wins", "other");
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < stats.openings.length / 3; code++) {
+            if (games(stats, code) > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort((a, b) -> Long.compare(games(stats, b), games(stats, a)));
+        for (int code : codes.subList(0, Math.min(TOP, codes.size()))) {
+            long n = games(stats, code);
+            System.out.printf(Locale.ROOT, "  %-8s %10d %7.1f%% %7.1f%% %7.1f%%%n", openingName(code, stats.openingPlies), n,
+                    100.0 * stats.openings[3 * code + X_WINS] / n, 100.0 * stats.openings[3 * code + O_WINS] / n,
+                    100.0 * stats.openings[3 * code + NO_WINNER] / n);
+        }
+
+        System.out.println("\nWinning lines:");
+        for (int line = 0; line < LINE_NAMES.length; line++) {
+            System.out.printf("  %-14s X %10d   O %10d%n", LINE_NAMES[line],
+                    stats.lineWins[2 * line + X_WINS], stats.lineWins[2 * line + O_WINS]);
+        }
+
+        System.out.println("\nPositions with the most evaluation swings (canonical key):");
+        long[] top = stats.swings.top(TOP);
+        for (int k = 0; k < top.length; k++) {
+            System.out.printf("  %016x %8d%n", top[k], stats.swings.get(top[k]));
+        }
+    }
+
+    private static long games(Stats stats, int code) {
+        return stats.openings[3 * code] + stats.openings[3 * code + 1] + stats.openings[3 * code + 2];
+    }
+
+    private static String openingName(int code, int openingPlies) {
+        char[] moves = new char[openingPlies];
+        for (int i = openingPlies - 1; i >= 0; i--) {
+            int digit = code % (BitBoard.MOVES + 1);
+            code /= BitBoard.MOVES + 1;
+            moves[i] = digit == 0 ? '-' : BitBoard.moveChar(digit - 1);
+        }
+        return new String(moves);
+    }
+
+    /** Writes random games, each played until it ends or reaches 200 moves. */
+    private static void generate(String file, int games) throws IOException {
+        Random random = new Random(1);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            for (int g = 0; g < games; g++) {
+                BitBoard board = new BitBoard();
+                for (int ply = 0; ply < GENERATED_PLIES; ply++) {
+                    if (board.checkForWin() != Player.BLANK || board.isFull()) {
+                        break;
+                    }
+                    int move = random.nextInt(BitBoard.MOVES);
+                    board.applyMove(move);
+                    out.write(BitBoard.moveChar(move));
+                }
+                out.write('\n');
+            }
+        }
+    }
+}
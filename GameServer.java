@@ -0,0 +1,204 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.DifficultyLevel;
+import com.example.slide.logic.OpeningBook;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Headless Tic-Tac-Slide server. Every TCP connection runs on its own
+ * virtual thread (Java 21), so a server can hold tens of thousands of
+ * matches with plain blocking I/O. The rules are those of
+ * {@link com.example.slide.logic.GameBoard}, applied per match by
+ * {@link MatchSession}; the computer opponent of ONE_PLAYER matches
+ * searches on a bounded {@link EnginePool}.
+ *
+ * <p>The protocol is one ASCII line per message. Client to server:
+ * <ul>
+ * <li>{@code PLAY ONE_PLAYER [EASY|MEDIUM|HARD]}: a match against the computer, as X;</li>
+ * <li>{@code PLAY TWO_PLAYER}: a match against the next client to ask for one;</li>
+ * <li>{@code MOVE M}: a slide, '1'-'5' or 'A'-'E';</li>
+ * <li>{@code WATCH id}: spectate a match; after the {@code WATCH id} reply the
+ *     connection carries {@link DeltaFrame}s only, until the match ends (an
+ *     end frame, after which the server closes it), the client closes it
+ *     or sends {@code QUIT};</li>
+ * <li>{@code STATS [gc]}: open connections, matches and used heap; with
+ *     {@code gc}, and only from a loopback address, the heap is measured
+ *     after a full collection, for load tests;</li>
+ * <li>{@code QUIT}.</li>
+ * </ul>
+ * Server to client: {@code WAIT} while waiting for an opponent,
+ * {@code START id X|O}, {@code MOVE M X|O} for every move of either side
+ * with the side to move next ({@code NONE} when the move ended the game),
+ * {@code OVER X|O|DRAW|LEFT|ERROR} (ERROR when the server cannot go on
+ * with the match), {@code STATS ...} and
+ * {@code ERROR reason}.
+ *
+ * <p>Usage: {@code GameServer [port] [engines] [bookFile]}
+ */
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7575;
+    private static final int BACKLOG = 4096;
+
+    private final ServerSocket serverSocket;
+    private final EnginePool engines;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong matchIds = new AtomicLong();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ConcurrentMap<Long, MatchSession> matches = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lobbyLock = new ReentrantLock();
+    private ClientConnection waiting; // Guarded by lobbyLock
+
+    /**
+     * @param port The port to listen on, or 0 for any free one.
+     * @param engineCount The number of computer opponents searching at once.
+     */
+    public GameServer(int port, int engineCount) throws IOException {
+        this(port, engineCount, null);
+    }
+
+    /**
+     * @param port The port to listen on, or 0 for any free one.
+     * @param engineCount The number of computer opponents searching at once.
+     * @param book The opening book of the computer opponents, or null for none.
+     */
+    public GameServer(int port, int engineCount, OpeningBook book) throws IOException {
+        engines = new EnginePool(engineCount, book);
+        serverSocket = new ServerSocket();
+        serverSocket.setReuseAddress(true);
+        serverSocket.bind(new InetSocketAddress(port), BACKLOG);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int engineCount = args.length > 1 ? Integer.parseInt(args[1]) : EnginePool.defaultSize();
+        OpeningBook book = args.length > 2 ? OpeningBook.open(new File(args[2])) : null;
+        try (GameServer server = new GameServer(port, engineCount, book)) {
+            System.out.println("Listening on port " + server.getPort() + " with " + engineCount + " engines"
+                    + (book != null ? " and a book of " + book.size() + " positions" : ""));
+            server.serve();
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts connections until the server is closed. */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                openConnections.incrementAndGet();
+                connections.execute(new ClientConnection(this, socket));
+            } catch (IOException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Accepts connections on a thread of its own. */
+    public void start() {
+        Thread acceptor = new Thread(this::serve, "game-server-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+        engines.shutdown();
+    }
+
+    EnginePool getEngines() {
+        return engines;
+    }
+
+    void startOnePlayer(ClientConnection client, DifficultyLevel level) {
+        MatchSession match = MatchSession.onePlayer(matchIds.incrementAndGet(), client, level);
+        matches.put(match.getId(), match);
+        client.setMatch(match);
+        match.start();
+    }
+
+    /**
+     * Pairs the client with the one waiting, or makes it wait. The match is
+     * set on both connections before the lobby is released, so a waiting
+     * client that disconnects meanwhile leaves the match rather than nothing.
+     */
+    void joinTwoPlayer(ClientConnection client) {
+        MatchSession match;
+        lobbyLock.lock();
+        try {
+            ClientConnection opponent = waiting;
+            if (opponent == null || opponent == client) {
+                waiting = client;
+                client.send("WAIT");
+                return;
+            }
+            waiting = null;
+            match = MatchSession.twoPlayer(matchIds.incrementAndGet(), opponent, client);
+            matches.put(match.getId(), match);
+            opponent.setMatch(match);
+            client.setMatch(match);
+        } finally {
+            lobbyLock.unlock();
+        }
+        match.start();
+    }
+
+    void matchReleased(MatchSession match) {
+        matches.remove(match.getId());
+    }
+
+    /** Returns an open match, or null. */
+    MatchSession findMatch(long id) {
+        return matches.get(id);
+    }
+
+    void disconnected(ClientConnection client) {
+        openConnections.decrementAndGet();
+        leaveLobby(client);
+    }
+
+    /** Takes the client out of the lobby if it is waiting there. */
+    void leaveLobby(ClientConnection client) {
+        lobbyLock.lock();
+        try {
+            if (waiting == client) {
+                waiting = null;
+            }
+        } finally {
+            lobbyLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the STATS reply.
+     * @param collect Whether to run a full collection first so the heap figure
+     *                is live data only; callers allow it for loopback clients.
+     */
+    String stats(boolean collect) {
+        Runtime runtime = Runtime.getRuntime();
+        if (collect) {
+            System.gc();
+        }
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return "STATS connections " + openConnections.get() + " matches " + matches.size() + " heap " + used;
+    }
+}
@@ -7,23 +7,35 @@ import android.graphics.Paint.Style;
 import android.graphics.RectF;
 
 /**
- * This class is responsible for drawing a 5x5 grid on the screen.
+ * This class is responsible for drawing the square grid of the board on the screen.
  */
 public class Grid {
 
-    private final int dim = 5;
+    private final int dim;
     private float lineWidth;
     private Paint paint;
     private RectF bounds;
     private float cellWidth;
 
     /**
-     * initializes the grid
+     * initializes a 5x5 grid
      * @param x the leftmost x coordinate
      * @param y the topmost y coordinate
      * @param cellWidth how wide each cell should be
      */
     public Grid(float x, float y, float cellWidth) {
+        this(x, y, cellWidth, 5);
+    }
+
+    /**
+     * initializes the grid
+     * @param x the leftmost x coordinate
+     * @param y the topmost y coordinate
+     * @param cellWidth how wide each cell should be
+     * @param dim the number of rows and columns, 4 to 8
+     */
+    public Grid(float x, float y, float cellWidth, int dim) {
+        this.dim = dim;
         this.cellWidth = cellWidth;
         lineWidth = cellWidth/20;
         bounds = new RectF(x, y, x+cellWidth*dim, y+cellWidth*dim);
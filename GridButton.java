@@ -75,7 +75,7 @@ public class GridButton {
      * @return true if top, false if side.
      */
     public boolean isTopButton() {
-        return (label >= '1' && label <= '5');
+        return (label >= '1' && label <= '9');
     }
 
     /**
@@ -83,7 +83,7 @@ public class GridButton {
      * @return true if side, false if top.
      */
     public boolean isLeftButton() {
-        return (label >= 'A' && label <= 'E');
+        return (label >= 'A' && label <= 'Z');
     }
 
     /**
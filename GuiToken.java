@@ -28,6 +28,7 @@ public class GuiToken implements TickListener {
     private static int movers = 0;
     private int stepCounter;
     private final int STEPS = 11;
+    private final int dim;
     private boolean falling;
 
     public class GridPosition {
@@ -40,9 +41,11 @@ public class GuiToken implements TickListener {
      *
      * @param p      The Player (X or O) who created the token
      * @param parent which button was tapped to create the token
+     * @param dim    the number of rows and columns of the board
      * @param res    the Resources object (used for loading image)
      */
-    public GuiToken(Player p, GridButton parent, Resources res, String theme) {
+    public GuiToken(Player p, GridButton parent, int dim, Resources res, String theme) {
+        this.dim = dim;
         gp = new GridPosition();
         if (parent.isTopButton()) {
             gp.row = 'A' - 1;
@@ -140,7 +143,7 @@ public class GuiToken implements TickListener {
     }
 
     private boolean fellOff() {
-        return (gp.col > '5' || gp.row > 'E');
+        return (gp.col >= '1' + dim || gp.row >= 'A' + dim);
     }
 
     public boolean isInvisible(int h) {
@@ -0,0 +1,109 @@
+package com.example.slide.logic;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and tracing for the game logic.
+ *
+ * <p>Counters are off unless the JVM starts with
+ * {@code -Dslide.instrumentation=true}. Every update is guarded by the
+ * constant {@link #ENABLED}, so when it is off the JIT drops the update
+ * along with the test. When it is on, each counter is a {@link LongAdder}
+ * that any thread can bump without contention.
+ *
+ * <p>Tracing is off until a {@link Tracer} is installed with
+ * {@link #setTracer}. Callers read {@link #tracer()} once and test it for
+ * null, and pass the tracer primitives and the objects they already have,
+ * so nothing is formatted on the fast path. Events for Java Flight Recorder
+ * live in {@code com.example.slide.jfr}, which keeps this package free of
+ * {@code jdk.jfr} for Android.
+ */
+public final class Instrumentation {
+    /** True if counters were switched on at startup. */
+    public static final boolean ENABLED = Boolean.getBoolean("slide.instrumentation");
+
+    public enum Counter {
+        /** Slides made on a {@link GameBoard}, push-offs included. */
+        MOVES_APPLIED,
+        /** Characters given to {@link GameBoard#submitMove} that are not a slide. */
+        ILLEGAL_MOVES,
+        /** Calls to {@link GameBoard#checkForWin()}. */
+        WIN_CHECKS,
+        /** Nodes visited by {@link SearchEngine}, added when each search ends. */
+        SEARCH_NODES,
+        /** Transposition table lookups made by {@link SearchEngine}. */
+        TABLE_PROBES,
+        /** Transposition table lookups that found an entry. */
+        TABLE_HITS
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final LongAdder[] VALUES = new LongAdder[COUNTERS.length];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = new LongAdder();
+        }
+    }
+
+    private static volatile Tracer tracer;
+
+    private Instrumentation() {
+    }
+
+    /** Adds one to a counter; callers test {@link #ENABLED} first. */
+    public static void count(Counter counter) {
+        VALUES[counter.ordinal()].increment();
+    }
+
+    /** Adds to a counter; callers test {@link #ENABLED} first. */
+    public static void add(Counter counter, long amount) {
+        VALUES[counter.ordinal()].add(amount);
+    }
+
+    public static long get(Counter counter) {
+        return VALUES[counter.ordinal()].sum();
+    }
+
+    /** Sets every counter back to zero. */
+    public static void reset() {
+        for (LongAdder value : VALUES) {
+            value.reset();
+        }
+    }
+
+    /** Returns the counters as {@code name=value} pairs, for the end of a tool run. */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Counter counter : COUNTERS) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(counter.name().toLowerCase(Locale.ROOT)).append('=').append(get(counter));
+        }
+        return sb.toString();
+    }
+
+    /** Returns the installed tracer, or null if tracing is off. */
+    public static Tracer tracer() {
+        return tracer;
+    }
+
+    /** Installs a tracer, or turns tracing off with null. */
+    public static void setTracer(Tracer t) {
+        tracer = t;
+    }
+
+    /**
+     * Reports the end of a game to the tracer, if any.
+     * @param winner The winner, or BLANK for a tie or a draw.
+     * @param moves The moves played in the game.
+     */
+    public static void gameOver(Player winner, int moves) {
+        Tracer t = tracer;
+        if (t != null) {
+            t.onGameOver(winner, moves);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.slide.jfr;
+
+import com.example.slide.logic.Instrumentation;
+import com.example.slide.logic.Instrumentation.Counter;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchResult;
+import com.example.slide.logic.Tracer;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Turns the logic's trace events into Java Flight Recorder events, for the
+ * tools and benchmarks on a desktop JVM. An event is only filled in when a
+ * recording has it enabled, so with no recording running each call costs a
+ * flag test.
+ *
+ * <p>Per-move calls are left to the default no-ops; a recording of a
+ * tournament would otherwise hold millions of them.
+ */
+public final class JfrTracer implements Tracer {
+    private static final Runnable COUNTERS_HOOK = JfrTracer::emitCounters;
+
+    private JfrTracer() {
+    }
+
+    /**
+     * Installs the tracer and, when counters are enabled, a periodic
+     * {@link CountersEvent}.
+     */
+    public static void install() {
+        Instrumentation.setTracer(new JfrTracer());
+        if (Instrumentation.ENABLED) {
+            FlightRecorder.addPeriodicEvent(CountersEvent.class, COUNTERS_HOOK);
+        }
+    }
+
+    @Override
+    public void onSearchIteration(int helperId, SearchResult result) {
+        SearchIterationEvent event = new SearchIterationEvent();
+        if (event.shouldCommit()) {
+            event.helperId = helperId;
+            event.depth = result.getDepth();
+            event.score = result.getScore();
+            event.bestMove = result.getBestMove();
+            event.nodes = result.getNodes();
+            event.searchTime = result.getTimeMillis();
+            event.principalVariation = result.getPrincipalVariation();
+            event.commit();
+        }
+    }
+
+    @Override
+    public void onGameOver(Player winner, int moves) {
+        GameOutcomeEvent event = new GameOutcomeEvent();
+        if (event.shouldCommit()) {
+            event.winner = winner.name();
+            event.moves = moves;
+            event.commit();
+        }
+    }
+
+    private static void emitCounters() {
+        CountersEvent event = new CountersEvent();
+        event.movesApplied = Instrumentation.get(Counter.MOVES_APPLIED);
+        event.illegalMoves = Instrumentation.get(Counter.ILLEGAL_MOVES);
+        event.winChecks = Instrumentation.get(Counter.WIN_CHECKS);
+        event.searchNodes = Instrumentation.get(Counter.SEARCH_NODES);
+        event.tableProbes = Instrumentation.get(Counter.TABLE_PROBES);
+        event.tableHits = Instrumentation.get(Counter.TABLE_HITS);
+        event.commit();
+    }
+}
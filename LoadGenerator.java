@@ -0,0 +1,219 @@
+package com.example.slide.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates many clients of a {@link GameServer}, each on a virtual thread
+ * playing random moves against the computer. All clients first open their
+ * match and hold it, so the server's heap can be measured with every
+ * session live; then they play and time every move.
+ *
+ * <p>Two latencies are reported: the round trip of a move, from sending it
+ * to reading the server's echo, and the reply time, from sending it to the
+ * computer's answer (which includes waiting for a free engine).
+ *
+ * <p>Without an address the server runs in this JVM on a free port; its heap
+ * per session then also counts the client side of every connection. Each
+ * client uses a socket, two when embedded, so the open file limit must
+ * allow for them. The heap figure needs the server on this host, since it
+ * only collects before measuring for loopback clients.
+ *
+ * <p>Usage: {@code LoadGenerator [clients] [movesPerClient] [host:port|embedded] [level]}
+ */
+public class LoadGenerator {
+    private static final String MOVES = "12345ABCDE";
+    private static final int BUFFER_CHARS = 256;
+
+    private final String host;
+    private final int port;
+    private final String level;
+    private final int movesPerClient;
+    private final CountDownLatch opened;
+    private final CountDownLatch go = new CountDownLatch(1);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final List<long[]> roundTrips = new ArrayList<>();
+    private final List<long[]> replies = new ArrayList<>();
+
+    LoadGenerator(String host, int port, String level, int clients, int movesPerClient) {
+        this.host = host;
+        this.port = port;
+        this.level = level;
+        this.movesPerClient = movesPerClient;
+        opened = new CountDownLatch(clients);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        String address = args.length > 2 ? args[2] : "embedded";
+        String level = args.length > 3 ? args[3] : "EASY";
+
+        GameServer server = null;
+        String host = "localhost";
+        int port;
+        if (address.equals("embedded")) {
+            server = new GameServer(0, EnginePool.defaultSize());
+            server.start();
+            port = server.getPort();
+        } else {
+            int colon = address.lastIndexOf(':');
+            host = address.substring(0, colon);
+            port = Integer.parseInt(address.substring(colon + 1));
+        }
+        try {
+            new LoadGenerator(host, port, level, clients, moves).run(clients);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    void run(int clients) throws IOException, InterruptedException {
+        long heapBefore = heap();
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long seed = i;
+                threads.execute(() -> client(seed));
+            }
+            opened.await();
+            double openSeconds = (System.nanoTime() - start) / 1e9;
+            long heapOpen = heap();
+            System.out.printf(Locale.ROOT, "%d sessions open in %.1f s, %,d bytes of server heap per session%n",
+                    clients - failures.get(), openSeconds, (heapOpen - heapBefore) / Math.max(1, clients - failures.get()));
+            start = System.nanoTime();
+            go.countDown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] rtt = merge(roundTrips);
+        long[] reply = merge(replies);
+        System.out.printf(Locale.ROOT, "%,d moves in %.1f s (%,.0f moves/s), %d clients failed%n",
+                rtt.length, seconds, rtt.length / seconds, failures.get());
+        System.out.println("move round trip: " + percentiles(rtt));
+        System.out.println("computer reply:  " + percentiles(reply));
+    }
+
+    /** One client: opens a match, waits for the others, then plays its moves. */
+    private void client(long seed) {
+        boolean counted = false;
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII), BUFFER_CHARS);
+            newMatch(out, in);
+            opened.countDown();
+            counted = true;
+            go.await();
+
+            SplittableRandom random = new SplittableRandom(seed);
+            long[] rtt = new long[movesPerClient];
+            long[] reply = new long[movesPerClient];
+            int replyCount = 0;
+            for (int i = 0; i < movesPerClient; i++) {
+                long sent = System.nanoTime();
+                send(out, "MOVE " + MOVES.charAt(random.nextInt(MOVES.length())));
+                String line = expect(in, "MOVE");
+                rtt[i] = System.nanoTime() - sent;
+                // The computer moves while O is to move; a push-off can keep the turn for either side
+                boolean computerMoved = false;
+                while (line.endsWith(" O")) {
+                    line = expect(in, "MOVE");
+                    computerMoved = true;
+                }
+                if (computerMoved) {
+                    reply[replyCount++] = System.nanoTime() - sent;
+                }
+                if (line.endsWith(" NONE")) {
+                    expect(in, "OVER");
+                    newMatch(out, in);
+                }
+            }
+            add(roundTrips, rtt);
+            add(replies, Arrays.copyOf(reply, replyCount));
+            send(out, "QUIT");
+        } catch (IOException e) {
+            failures.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!counted) {
+                opened.countDown();
+            }
+        }
+    }
+
+    private void newMatch(OutputStream out, BufferedReader in) throws IOException {
+        send(out, "PLAY ONE_PLAYER " + level);
+        expect(in, "START");
+    }
+
+    /** Reads lines until one with the given prefix, skipping any others. */
+    private static String expect(BufferedReader in, String prefix) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.startsWith(prefix)) {
+                return line;
+            }
+            if (line.startsWith("ERROR")) {
+                throw new IOException(line);
+            }
+        }
+        throw new IOException("Server closed the connection");
+    }
+
+    private static void send(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private synchronized void add(List<long[]> samples, long[] values) {
+        samples.add(values);
+    }
+
+    private synchronized long[] merge(List<long[]> samples) {
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static String percentiles(long[] sorted) {
+        if (sorted.length == 0) {
+            return "no samples";
+        }
+        return String.format(Locale.ROOT, "p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                at(sorted, 0.50) / 1e6, at(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long at(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) (quantile * sorted.length))];
+    }
+
+    /** Asks the server for its used heap after a collection, which it allows over loopback only. */
+    private long heap() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            send(out, "STATS gc");
+            String[] fields = expect(in, "STATS").split(" ");
+            send(out, "QUIT");
+            return Long.parseLong(fields[fields.length - 1]);
+        }
+    }
+}
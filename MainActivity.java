@@ -9,7 +9,10 @@ import android.os.Bundle;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.DifficultyLevel;
 import com.example.slide.logic.GameMode;
+import com.example.slide.logic.SquareBoard;
 import com.example.slide.ui.CustomView;
 
 import java.util.Locale;
@@ -54,9 +57,24 @@ public class MainActivity extends AppCompatActivity {
             String mode = getIntent().getStringExtra("gameMode");
             if ("OnePlayer".equals(mode)) {
                 gv.setGameMode(GameMode.ONE_PLAYER);
+                gv.setDifficultyLevel(readDifficultyLevel(prefs));
+                gv.setMonteCarlo("mcts".equals(prefs.getString("engine_selector", "alpha_beta")));
+            } else {
+                gv.setGameMode(GameMode.TWO_PLAYER);
             }
         }
 
+        // Variants pass their board size and win length; the default, and the
+        // fallback for values SquareBoard does not support, is the 5x5 game
+        int boardSize = getIntent().getIntExtra("boardSize", BitBoard.DIM);
+        int winLength = getIntent().getIntExtra("winLength", boardSize);
+        if (boardSize < SquareBoard.MIN_DIM || boardSize > SquareBoard.MAX_DIM
+                || winLength < SquareBoard.MIN_WIN_LENGTH || winLength > boardSize) {
+            boardSize = BitBoard.DIM;
+            winLength = BitBoard.DIM;
+        }
+        gv.setBoardSize(boardSize, winLength);
+
         // Set the content view
         setContentView(gv);
     }
@@ -104,6 +122,18 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Read the computer's difficulty level from preferences, EASY if unset or unknown.
+     */
+    private DifficultyLevel readDifficultyLevel(SharedPreferences prefs) {
+        String level = prefs.getString("difficulty_selector", DifficultyLevel.EASY.name());
+        try {
+            return DifficultyLevel.valueOf(level.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return DifficultyLevel.EASY;
+        }
+    }
+
     /**
      * Apply the selected theme to the CustomView.
      */
@@ -0,0 +1,233 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.DifficultyLevel;
+import com.example.slide.logic.GameBoard;
+import com.example.slide.logic.GameMode;
+import com.example.slide.logic.Instrumentation;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchLimits;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One match on the server. Its {@link GameBoard} is the authoritative
+ * rules engine: a move is checked for turn and syntax here, then applied
+ * with {@link GameBoard#submitMove} exactly as in the app, so a slide into
+ * a full line pushes a token off and keeps the turn.
+ *
+ * <p>Spectators watch through a {@link SpectatorFeed}, opened on demand,
+ * fed every move in order and closed when the match ends.
+ *
+ * <p>Both players' threads and the computer's move go through one lock. It
+ * is a {@link ReentrantLock} rather than {@code synchronized} so a virtual
+ * thread waiting for it never pins its carrier.
+ */
+final class MatchSession {
+    private final long id;
+    private final GameMode mode;
+    private final SearchLimits computerLimits;
+    private final GameBoard board = new GameBoard();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; index 0 plays X, 1 plays O, null for the computer
+    private final ClientConnection[] players = new ClientConnection[2];
+    private boolean over;
+    private Player result; // The feed's end result once over
+    private boolean released;
+    private int moves;
+    private SpectatorFeed feed;
+
+    private MatchSession(long id, GameMode mode, DifficultyLevel level) {
+        this.id = id;
+        this.mode = mode;
+        computerLimits = level != null ? SearchLimits.of(level) : null;
+    }
+
+    /** A match against the computer, with the client playing X. */
+    static MatchSession onePlayer(long id, ClientConnection human, DifficultyLevel level) {
+        MatchSession match = new MatchSession(id, GameMode.ONE_PLAYER, level);
+        match.players[0] = human;
+        return match;
+    }
+
+    /** A match between two clients, the first playing X. */
+    static MatchSession twoPlayer(long id, ClientConnection x, ClientConnection o) {
+        MatchSession match = new MatchSession(id, GameMode.TWO_PLAYER, null);
+        match.players[0] = x;
+        match.players[1] = o;
+        return match;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    /** Tells the clients the match has begun, unless a player has already left it. */
+    void start() {
+        lock.lock();
+        try {
+            if (over) {
+                return;
+            }
+            for (int i = 0; i < players.length; i++) {
+                if (players[i] != null) {
+                    players[i].send("START " + id + " " + (i == 0 ? Player.X : Player.O));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns the match's spectator feed, opening it on the first call. */
+    SpectatorFeed watch() {
+        lock.lock();
+        try {
+            if (feed == null) {
+                feed = new SpectatorFeed(board);
+                if (over) {
+                    feed.close(result);
+                }
+            }
+            return feed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Plays a client's move and tells both sides.
+     * @return True if it is now the computer's turn.
+     */
+    boolean submit(ClientConnection from, String move) {
+        lock.lock();
+        try {
+            if (over) {
+                from.send("ERROR match is over");
+                return false;
+            }
+            if (players[board.getCurrentPlayer() == Player.X ? 0 : 1] != from) {
+                from.send("ERROR not your turn");
+                return false;
+            }
+            if (move.length() != 1 || BitBoard.moveIndex(move.charAt(0)) < 0) {
+                from.send("ERROR illegal move " + move);
+                return false;
+            }
+            play(move.charAt(0));
+            return !over && isComputerTurn();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Plays the computer's moves until the client is to move again or the
+     * game ends. The search runs on a copy, outside the lock.
+     */
+    void playComputer(EnginePool engines) throws InterruptedException {
+        while (true) {
+            BitBoard position;
+            lock.lock();
+            try {
+                if (over || !isComputerTurn()) {
+                    return;
+                }
+                position = new BitBoard(board);
+            } finally {
+                lock.unlock();
+            }
+            char move = engines.search(position, computerLimits).getBestMove();
+            lock.lock();
+            try {
+                if (over) {
+                    return;
+                }
+                if (BitBoard.moveIndex(move) < 0) {
+                    // Playing it would leave the computer to move again, for ever
+                    abort("computer returned no move");
+                    return;
+                }
+                play(move);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Ends the match when a client leaves or starts another; the other one is
+     * told if the game was still on.
+     * @return True for the first client to leave, which releases the match.
+     */
+    boolean leave(ClientConnection who) {
+        lock.lock();
+        try {
+            if (!over) {
+                end(Player.BLANK);
+                for (ClientConnection player : players) {
+                    if (player != null && player != who) {
+                        player.send("OVER LEFT");
+                    }
+                }
+            }
+            boolean first = !released;
+            released = true;
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isComputerTurn() {
+        return mode == GameMode.ONE_PLAYER && board.getCurrentPlayer() == Player.O;
+    }
+
+    /** Applies a checked move, broadcasts it and any result. Called with the lock held. */
+    private void play(char move) {
+        board.submitMove(move);
+        moves++;
+        if (feed != null) {
+            feed.publish(move);
+        }
+        Player winner = board.checkForWin();
+        if (winner != Player.BLANK) {
+            end(winner);
+        } else if (board.checkForTie() || board.isDrawByRepetition()) {
+            end(Player.TIE);
+        }
+        broadcast("MOVE " + move + " " + (over ? "NONE" : board.getCurrentPlayer().name()));
+        if (over) {
+            broadcast("OVER " + (winner != Player.BLANK ? winner.name() : "DRAW"));
+            Instrumentation.gameOver(winner, moves);
+        }
+    }
+
+    /** Ends the match on a server fault and tells both sides. Called with the lock held. */
+    private void abort(String reason) {
+        end(Player.BLANK);
+        broadcast("ERROR " + reason);
+        broadcast("OVER ERROR");
+    }
+
+    /**
+     * Marks the match over and closes the spectator feed. Called with the lock held.
+     * @param result The winner, TIE for a draw, or BLANK when it ended without a result.
+     */
+    private void end(Player result) {
+        over = true;
+        this.result = result;
+        if (feed != null) {
+            feed.close(result);
+        }
+    }
+
+    private void broadcast(String line) {
+        for (ClientConnection player : players) {
+            if (player != null) {
+                player.send(line);
+            }
+        }
+    }
+}
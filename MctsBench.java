@@ -0,0 +1,96 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.MctsEngine;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchEngine;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+
+import java.util.Random;
+
+/**
+ * Measures MCTS playouts per second with 1 to N threads, then plays MCTS
+ * against the alpha-beta engine with the same time per move, each side
+ * taking X in half the games.
+ *
+ * <p>Usage: {@code MctsBench [maxThreads] [millisPerMove] [games] [nodeCapacity]}
+ */
+public class MctsBench {
+
+    private static final String[] POSITIONS = {"", "3C", "3CA15", "3CA15E2D", "12A32A1A2"};
+    private static final int MAX_GAME_PLIES = 200;
+    private static final int RANDOM_OPENING_PLIES = 2;
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int millis = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 20;
+
+        System.out.printf("%-8s %14s %14s %8s%n", "threads", "playouts", "playouts/s", "depth");
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            MctsEngine mcts = new MctsEngine(threads, capacity);
+            long playouts = 0;
+            long nanos = 0;
+            int depth = 0;
+            for (String moves : POSITIONS) {
+                SearchResult result = mcts.search(play(moves), new SearchLimits(SearchLimits.MAX_DEPTH, millis, 0));
+                playouts += result.getNodes();
+                nanos += result.getTimeMillis() * 1_000_000L;
+                depth = Math.max(depth, result.getDepth());
+            }
+            mcts.shutdown();
+            System.out.printf("%-8d %14d %14d %8d%n", threads, playouts, (long) (playouts / (nanos / 1e9)), depth);
+        }
+
+        System.out.printf("%nMCTS (1 thread) vs alpha-beta, %d ms per move%n", millis);
+        MctsEngine mcts = new MctsEngine(1, capacity);
+        SearchEngine alphaBeta = new SearchEngine();
+        SearchLimits limits = new SearchLimits(SearchLimits.MAX_DEPTH, millis, 0);
+        Random random = new Random(1);
+        int mctsWins = 0;
+        int alphaBetaWins = 0;
+        int draws = 0;
+        for (int game = 0; game < games; game++) {
+            Player mctsSide = game % 2 == 0 ? Player.X : Player.O;
+            BitBoard board = new BitBoard();
+            for (int i = 0; i < RANDOM_OPENING_PLIES; i++) {
+                board.applyMove(random.nextInt(BitBoard.MOVES));
+            }
+            int plies = 0;
+            while (board.checkForWin() == Player.BLANK && !board.isFull() && plies++ < MAX_GAME_PLIES) {
+                SearchResult result = board.getCurrentPlayer() == mctsSide
+                        ? mcts.search(board, limits)
+                        : alphaBeta.search(board, limits);
+                board.submitMove(result.getBestMove());
+            }
+            Player winner = board.checkForWin();
+            if (winner == Player.BLANK) {
+                draws++;
+            } else if (winner == mctsSide) {
+                mctsWins++;
+            } else {
+                alphaBetaWins++;
+            }
+        }
+        mcts.shutdown();
+        System.out.printf("MCTS %d, alpha-beta %d, draws %d%n", mctsWins, alphaBetaWins, draws);
+    }
+
+    /** Doubles the thread count, but stops at maxThreads rather than skipping it. */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+
+    private static BitBoard play(String moves) {
+        BitBoard board = new BitBoard();
+        for (char move : moves.toCharArray()) {
+            board.submitMove(move);
+        }
+        return board;
+    }
+}
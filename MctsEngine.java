@@ -0,0 +1,393 @@
+package com.example.slide.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo tree search with UCT selection, an alternative to the
+ * alpha-beta {@link SearchEngine} for the computer player.
+ *
+ * <p>Each thread grows its own tree (root parallelism) and the root
+ * statistics are summed to choose the move, so threads share nothing while
+ * searching. A tree lives in primitive arrays: the 10 children of a node
+ * sit in one block of consecutive slots, and blocks are handed out from a
+ * free list with a fixed capacity. When the game moves on to a position
+ * already in the tree, the tree keeps that subtree and returns every other
+ * block to the free list. When no block is free a leaf is simply not
+ * expanded.
+ *
+ * <p>Rewards are stored per node for the player who chose the move into it,
+ * which is the player to move at the parent, since push-off moves do not
+ * pass the turn.
+ */
+public class MctsEngine implements Engine {
+    private static final double EXPLORATION = 1.4;
+    private static final int MAX_TREE_PLY = 48;
+    private static final int PLAYOUT_PLIES = 200;
+    private static final int TIME_CHECK_MASK = 255;
+
+    private final Tree[] trees;
+    private final ExecutorService workers;
+    private volatile boolean stopRequested;
+
+    /**
+     * @param threads The number of trees searched in parallel.
+     * @param nodeCapacity The number of nodes per tree.
+     */
+    public MctsEngine(int threads, int nodeCapacity) {
+        trees = new Tree[threads];
+        for (int i = 0; i < threads; i++) {
+            trees[i] = new Tree(nodeCapacity, 0x9E3779B97F4A7C15L * (i + 1));
+        }
+        workers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, r -> {
+            Thread t = new Thread(r, "mcts-worker");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return trees.length;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from
+     * any thread. A stop that comes before the search starts is kept for it,
+     * until {@link #prepare()} or the end of the next search clears it.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /** Clears a stop left over from an earlier search; see {@link SearchEngine#prepare()}. */
+    public void prepare() {
+        stopRequested = false;
+    }
+
+    /** Stops the worker threads; the engine cannot search afterwards. */
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs playouts from the position until the budget is spent.
+     * @param limits The time limit and the node limit, counted in playouts
+     *               over all threads; the depth limit is not used.
+     * @return The most visited move, its score as the expected result from -1000
+     *         (loss) to 1000 (win), the deepest tree ply, the playouts and the
+     *         most visited line.
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        BitBoard root = new BitBoard(position);
+        if (root.checkForWin() != Player.BLANK || root.isFull()) {
+            throw new IllegalStateException("The game is already over");
+        }
+        long start = System.nanoTime();
+        long deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        long perTree = limits.getNodeLimit() > 0 ? Math.max(1, limits.getNodeLimit() / trees.length) : Long.MAX_VALUE;
+        if (deadline == Long.MAX_VALUE && perTree == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("MCTS needs a time or node limit");
+        }
+
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 1; i < trees.length; i++) {
+            Tree tree = trees[i];
+            running.add(workers.submit(() -> tree.search(root, deadline, perTree)));
+        }
+        trees[0].search(root, deadline, perTree);
+        for (Future<?> f : running) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        // The stop, if any, was for this search
+        stopRequested = false;
+
+        // Sum the root children of all trees
+        long[] visits = new long[BitBoard.MOVES];
+        double[] rewards = new double[BitBoard.MOVES];
+        long playouts = 0;
+        int depth = 0;
+        for (Tree tree : trees) {
+            tree.addRootStatistics(visits, rewards);
+            playouts += tree.playouts;
+            depth = Math.max(depth, tree.maxPly);
+        }
+        int best = 0;
+        for (int move = 1; move < BitBoard.MOVES; move++) {
+            if (visits[move] > visits[best]) {
+                best = move;
+            }
+        }
+        double expected = visits[best] > 0 ? rewards[best] / visits[best] : 0.5;
+        int score = (int) Math.round((2 * expected - 1) * 1000);
+        return new SearchResult(BitBoard.moveChar(best), score, depth, playouts, System.nanoTime() - start,
+                trees[0].principalVariation(best));
+    }
+
+    /** One search tree and the state of the thread growing it. */
+    private final class Tree {
+        private static final int NONE = -1;
+        private static final int MOVES = BitBoard.MOVES;
+
+        // Per node slot
+        private final int[] children;
+        private final int[] visits;
+        private final float[] rewards;
+
+        // Free list of blocks, by the index of their first slot
+        private final int[] freeBlocks;
+        private int freeCount;
+
+        private final int[] path = new int[MAX_TREE_PLY + 1];
+        private final SplittableRandom random;
+        private final PlayoutKernel kernel;
+
+        private BitBoard board;
+        private long rootKey = -1L;
+        private int root;
+        private int rootBlock;
+        private long playouts;
+        private int maxPly;
+
+        Tree(int capacity, long seed) {
+            int blocks = Math.max(2, capacity / MOVES);
+            children = new int[blocks * MOVES];
+            visits = new int[blocks * MOVES];
+            rewards = new float[blocks * MOVES];
+            freeBlocks = new int[blocks];
+            random = new SplittableRandom(seed);
+            kernel = new PlayoutKernel(seed);
+            reset();
+        }
+
+        /** Discards the whole tree and starts a new one at a fresh root. */
+        private void reset() {
+            freeCount = 0;
+            for (int block = freeBlocks.length - 1; block >= 0; block--) {
+                freeBlocks[freeCount++] = block * MOVES;
+            }
+            rootBlock = allocate();
+            root = rootBlock;
+            initNode(root);
+        }
+
+        private int allocate() {
+            return freeCount > 0 ? freeBlocks[--freeCount] : NONE;
+        }
+
+        private void initNode(int node) {
+            children[node] = NONE;
+            visits[node] = 0;
+            rewards[node] = 0;
+        }
+
+        /** Returns the blocks below a node to the free list. */
+        private void release(int node) {
+            int block = children[node];
+            if (block == NONE) {
+                return;
+            }
+            for (int i = 0; i < MOVES; i++) {
+                release(block + i);
+            }
+            children[node] = NONE;
+            freeBlocks[freeCount++] = block;
+        }
+
+        /**
+         * Moves the root to the given position if it is the root or lies one or
+         * two moves below it, releasing the rest; otherwise starts over, which
+         * rebuilds the free list from scratch.
+         */
+        private void reuse(BitBoard position) {
+            long key = position.key();
+            if (key == rootKey) {
+                return;
+            }
+            int first = children[root];
+            if (rootKey != -1L && first != NONE) {
+                for (int a = 0; a < MOVES; a++) {
+                    board.makeMove(a);
+                    if (board.key() == key) {
+                        board.unmakeMove();
+                        advance(a);
+                        return;
+                    }
+                    int second = children[first + a];
+                    for (int b = 0; second != NONE && b < MOVES; b++) {
+                        board.makeMove(b);
+                        boolean found = board.key() == key;
+                        board.unmakeMove();
+                        if (found) {
+                            board.unmakeMove();
+                            advance(a);
+                            advance(b);
+                            return;
+                        }
+                    }
+                    board.unmakeMove();
+                }
+            }
+            reset();
+        }
+
+        /** Makes a child of the root the new root. */
+        private void advance(int move) {
+            int first = children[root];
+            int next = first + move;
+            for (int i = 0; i < MOVES; i++) {
+                if (i != move) {
+                    release(first + i);
+                }
+            }
+            // The old root's block is free now; the new root's block stays until it moves on
+            freeBlocks[freeCount++] = rootBlock;
+            rootBlock = first;
+            root = next;
+            board.applyMove(move);
+        }
+
+        void search(BitBoard position, long deadline, long limit) {
+            if (board == null) {
+                board = position.copy();
+            }
+            reuse(position);
+            board = position.copy();
+            rootKey = board.key();
+            playouts = 0;
+            maxPly = 0;
+
+            while (playouts < limit && !stopRequested) {
+                if ((playouts & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                iterate();
+                playouts++;
+            }
+        }
+
+        /** One selection, expansion, playout and backup. */
+        private void iterate() {
+            int node = root;
+            int ply = 0;
+            path[0] = node;
+            int result = outcome();
+
+            // Select down the tree while nodes are expanded
+            while (result == NONE && children[node] != NONE && ply < MAX_TREE_PLY) {
+                int move = select(node);
+                node = children[node] + move;
+                board.makeMove(move);
+                path[++ply] = node;
+                result = outcome();
+            }
+            // Expand a visited leaf if a block is free
+            if (result == NONE && visits[node] > 0 && ply < MAX_TREE_PLY) {
+                int block = allocate();
+                if (block != NONE) {
+                    for (int i = 0; i < MOVES; i++) {
+                        initNode(block + i);
+                    }
+                    children[node] = block;
+                    int move = random.nextInt(MOVES);
+                    node = block + move;
+                    board.makeMove(move);
+                    path[++ply] = node;
+                    result = outcome();
+                }
+            }
+            maxPly = Math.max(maxPly, ply);
+
+            Player winner = board.checkForWin();
+            if (result == NONE) {
+                int code = kernel.playout(board.getXMask(), board.getOMask(),
+                        board.getCurrentPlayer() == Player.X, PLAYOUT_PLIES);
+                winner = code == PlayoutKernel.X_WINS ? Player.X : code == PlayoutKernel.O_WINS ? Player.O : Player.BLANK;
+            }
+
+            // Back up from the leaf, crediting each node's mover
+            for (int i = ply; i >= 0; i--) {
+                int n = path[i];
+                visits[n]++;
+                if (i > 0) {
+                    board.unmakeMove();
+                    Player mover = board.getCurrentPlayer();
+                    rewards[n] += winner == Player.BLANK ? 0.5f : winner == mover ? 1f : 0f;
+                }
+            }
+        }
+
+        /** Returns 1 if the game is over on the board, NONE otherwise. */
+        private int outcome() {
+            return board.checkForWin() != Player.BLANK || board.isFull() ? 1 : NONE;
+        }
+
+        /** Picks the child with the highest UCT value, unvisited children first. */
+        private int select(int node) {
+            int first = children[node];
+            double logParent = Math.log(Math.max(1, visits[node]));
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            int offset = random.nextInt(MOVES);
+            for (int k = 0; k < MOVES; k++) {
+                int i = (k + offset) % MOVES;
+                int n = visits[first + i];
+                if (n == 0) {
+                    return i;
+                }
+                double value = rewards[first + i] / n + EXPLORATION * Math.sqrt(logParent / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        void addRootStatistics(long[] totalVisits, double[] totalRewards) {
+            int first = children[root];
+            if (first == NONE) {
+                return;
+            }
+            for (int i = 0; i < MOVES; i++) {
+                totalVisits[i] += visits[first + i];
+                totalRewards[i] += rewards[first + i];
+            }
+        }
+
+        /** Follows the most visited children from the root, starting with the chosen move. */
+        String principalVariation(int move) {
+            StringBuilder pv = new StringBuilder().append(BitBoard.moveChar(move));
+            int first = children[root];
+            int node = first == NONE ? NONE : first + move;
+            while (node != NONE && children[node] != NONE && pv.length() < MAX_TREE_PLY) {
+                int block = children[node];
+                int best = 0;
+                for (int i = 1; i < MOVES; i++) {
+                    if (visits[block + i] > visits[block + best]) {
+                        best = i;
+                    }
+                }
+                if (visits[block + best] == 0) {
+                    break;
+                }
+                pv.append(BitBoard.moveChar(best));
+                node = block + best;
+            }
+            return pv.toString();
+        }
+    }
+}
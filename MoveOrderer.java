@@ -0,0 +1,111 @@
+package com.example.slide.logic;
+
+/**
+ * Orders the 10 moves of a node so alpha-beta meets its cutoffs early:
+ * the transposition table move first, then the two killer moves of the ply,
+ * then the rest by history score plus a static bonus from
+ * {@link GameBoard#POSITION_SCORES} for the cell the slide fills.
+ * It also counts how often a cutoff came from the first move tried, which
+ * measures the quality of the ordering.
+ */
+public class MoveOrderer {
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+    private static final int STATIC_WEIGHT = 16;
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    private final int[] killers;
+    private final int[] history = new int[2 * BitBoard.MOVES];
+    private final int[] scores = new int[BitBoard.MOVES];
+    private final int[] cellScores = new int[BitBoard.CELLS];
+
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    public MoveOrderer(int maxPly) {
+        killers = new int[2 * maxPly];
+        for (int row = 0; row < BitBoard.DIM; row++) {
+            for (int col = 0; col < BitBoard.DIM; col++) {
+                cellScores[row * BitBoard.DIM + col] = GameBoard.POSITION_SCORES[row][col];
+            }
+        }
+        newSearch();
+    }
+
+    /** Clears the killers and ages the history before a new search. */
+    public void newSearch() {
+        for (int i = 0; i < killers.length; i++) {
+            killers[i] = TranspositionTable.NO_MOVE;
+        }
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+    }
+
+    /**
+     * Fills {@code moves} with the 10 move indices, best first.
+     * @param rotation Rotates the initial order, so parallel helpers break ties differently.
+     */
+    public void order(BitBoard board, int ply, int tableMove, int rotation, int[] moves) {
+        int side = board.getCurrentPlayer() == Player.X ? 0 : BitBoard.MOVES;
+        for (int i = 0; i < BitBoard.MOVES; i++) {
+            int move = (i + rotation) % BitBoard.MOVES;
+            int score;
+            if (move == tableMove) {
+                score = TABLE_MOVE_SCORE;
+            } else if (move == killers[2 * ply]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[2 * ply + 1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = history[side + move] + STATIC_WEIGHT * cellScores[board.filledCell(move)];
+            }
+            // Insertion sort, stable so ties keep the rotated order
+            int j = i;
+            while (j > 0 && scores[j - 1] < score) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            moves[j] = move;
+        }
+    }
+
+    /**
+     * Records a beta cutoff.
+     * @param moveNumber The position of the cutoff move in the ordered list, 0 for the first.
+     */
+    public void cutoff(BitBoard board, int ply, int move, int depth, int moveNumber) {
+        cutoffs++;
+        if (moveNumber == 0) {
+            firstMoveCutoffs++;
+        }
+        if (killers[2 * ply] != move) {
+            killers[2 * ply + 1] = killers[2 * ply];
+            killers[2 * ply] = move;
+        }
+        int i = (board.getCurrentPlayer() == Player.X ? 0 : BitBoard.MOVES) + move;
+        history[i] += depth * depth;
+        if (history[i] > HISTORY_LIMIT) {
+            for (int k = 0; k < history.length; k++) {
+                history[k] >>= 1;
+            }
+        }
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /** Returns the fraction of cutoffs produced by the first move tried. */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs > 0 ? (double) firstMoveCutoffs / cutoffs : 0.0;
+    }
+}
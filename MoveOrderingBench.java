@@ -0,0 +1,48 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.MoveOrderer;
+import com.example.slide.logic.SearchEngine;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+import com.example.slide.logic.TranspositionTable;
+
+/**
+ * Measures move ordering quality: searches a set of positions to a fixed
+ * depth with the ordering heuristics off and on, and prints the nodes
+ * searched and the rate of cutoffs produced by the first move tried.
+ *
+ * <p>Usage: {@code MoveOrderingBench [depth]}
+ */
+public class MoveOrderingBench {
+
+    private static final String[] POSITIONS = {"", "3C", "3CA15", "3CA15E2D", "12A32A1A2", "C3C3C3", "AE15BD24"};
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+
+        System.out.printf("%-10s %14s %12s %12s %10s%n", "ordering", "nodes", "cutoffs", "first-move", "time(ms)");
+        for (boolean ordering : new boolean[]{false, true}) {
+            long nodes = 0;
+            long cutoffs = 0;
+            long firstMoveCutoffs = 0;
+            long millis = 0;
+            for (String moves : POSITIONS) {
+                BitBoard board = new BitBoard();
+                for (char move : moves.toCharArray()) {
+                    board.submitMove(move);
+                }
+                SearchEngine engine = new SearchEngine(new TranspositionTable(16), 0);
+                engine.setMoveOrdering(ordering);
+                SearchResult result = engine.search(board, SearchLimits.depth(depth));
+                MoveOrderer orderer = engine.getMoveOrderer();
+                nodes += result.getNodes();
+                cutoffs += orderer.getCutoffs();
+                firstMoveCutoffs += orderer.getFirstMoveCutoffs();
+                millis += result.getTimeMillis();
+            }
+            System.out.printf("%-10s %14d %12d %11.1f%% %10d%n", ordering ? "on" : "off", nodes, cutoffs,
+                    cutoffs > 0 ? 100.0 * firstMoveCutoffs / cutoffs : 0.0, millis);
+        }
+    }
+}
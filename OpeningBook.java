@@ -0,0 +1,123 @@
+package com.example.slide.logic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Read-only opening book backed by a memory-mapped file. The file holds
+ * fixed 16-byte records sorted by canonical position key (see
+ * {@link Symmetry}), so a probe is a binary search over the mapping and
+ * opening the book reads nothing but the header.
+ *
+ * <p>File layout: magic, version and record count as ints, then per record
+ * the canonical key as a long and an entry as a long. An entry packs the
+ * best move of the canonical position (bits 0-3), the search depth (8-15)
+ * and the score (16-31, signed).
+ *
+ * <p>Probes only read the mapping at absolute offsets, so one book can be
+ * shared by any number of engines and threads.
+ */
+public class OpeningBook {
+    public static final long NO_ENTRY = -1L;
+
+    private static final int MAGIC = 0x54534F42; // "TSOB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+    private static final int RECORD_BYTES = 2 * Long.BYTES;
+
+    private final ByteBuffer records;
+    private final int size;
+
+    private OpeningBook(ByteBuffer records, int size) {
+        this.records = records;
+        this.size = size;
+    }
+
+    /** Maps a book file written by {@link #write(File, SortedMap)}. */
+    public static OpeningBook open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (map.limit() < HEADER_BYTES || map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            int size = map.getInt(8);
+            if ((long) size * RECORD_BYTES + HEADER_BYTES != map.limit()) {
+                throw new IOException("Truncated opening book: " + file);
+            }
+            return new OpeningBook(map, size);
+        }
+    }
+
+    /**
+     * Writes a book.
+     * @param entries Packed entries by canonical key; a sorted map keeps the records in key order.
+     */
+    public static void write(File file, SortedMap<Long, Long> entries) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, Long> e : entries.entrySet()) {
+                out.writeLong(e.getKey());
+                out.writeLong(e.getValue());
+            }
+        }
+    }
+
+    /** Packs a book entry; the move is relative to the canonical position. */
+    public static long entry(int move, int depth, int score) {
+        return move | (long) depth << 8 | (long) (score & 0xFFFF) << 16;
+    }
+
+    public static int move(long entry) {
+        return (int) entry & 0xF;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up a position.
+     * @param key A {@link BitBoard#key()}, canonical or not.
+     * @return The entry with its move mapped back to the given position, or NO_ENTRY.
+     */
+    public long probe(long key) {
+        long canonical = Symmetry.canonicalKey(key);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * RECORD_BYTES;
+            long k = records.getLong(offset);
+            if (k < canonical) {
+                low = mid + 1;
+            } else if (k > canonical) {
+                high = mid - 1;
+            } else {
+                long entry = records.getLong(offset + Long.BYTES);
+                if (canonical != key) {
+                    entry = entry & ~0xFL | Symmetry.transposeMove(move(entry));
+                }
+                return entry;
+            }
+        }
+        return NO_ENTRY;
+    }
+}
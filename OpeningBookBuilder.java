@@ -0,0 +1,75 @@
+package com.example.slide.tools;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.OpeningBook;
+import com.example.slide.logic.ParallelSearch;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+import com.example.slide.logic.Symmetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Builds an opening book: searches every position reachable from the start
+ * position within a number of plies, one per canonical position, and
+ * writes the best moves to a book file.
+ *
+ * <p>Usage: {@code OpeningBookBuilder [file] [plies] [depth] [threads] [tableSizeMb]}
+ */
+public class OpeningBookBuilder {
+
+    public static void main(String[] args) throws IOException {
+        File file = new File(args.length > 0 ? args[0] : "opening.tsob");
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int tableMb = args.length > 4 ? Integer.parseInt(args[4]) : 256;
+
+        ParallelSearch search = new ParallelSearch(threads, tableMb);
+        SortedMap<Long, Long> entries = new TreeMap<>();
+        Set<Long> seen = new HashSet<>();
+        List<BitBoard> frontier = new ArrayList<>();
+        frontier.add(new BitBoard());
+        seen.add(Symmetry.canonicalKey(frontier.get(0).key()));
+        long start = System.nanoTime();
+
+        for (int ply = 0; ply <= plies; ply++) {
+            List<BitBoard> next = new ArrayList<>();
+            for (BitBoard board : frontier) {
+                SearchResult result = search.search(board, SearchLimits.depth(depth));
+                long key = board.key();
+                int move = BitBoard.moveIndex(result.getBestMove());
+                if (Symmetry.canonicalKey(key) != key) {
+                    move = Symmetry.transposeMove(move);
+                }
+                entries.put(Symmetry.canonicalKey(key), OpeningBook.entry(move, result.getDepth(), result.getScore()));
+
+                if (ply < plies) {
+                    for (int m = 0; m < BitBoard.MOVES; m++) {
+                        BitBoard child = board.copy();
+                        child.applyMove(m);
+                        if (child.checkForWin() == Player.BLANK && !child.isFull()
+                                && seen.add(Symmetry.canonicalKey(child.key()))) {
+                            next.add(child);
+                        }
+                    }
+                }
+            }
+            System.out.printf("ply %d: %d positions, %d entries, %.1f s%n",
+                    ply, frontier.size(), entries.size(), (System.nanoTime() - start) / 1e9);
+            frontier = next;
+        }
+        search.shutdown();
+
+        OpeningBook.write(file, entries);
+        System.out.println("wrote " + entries.size() + " entries to " + file);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.slide.logic;
+
+import static com.example.slide.logic.BitBoard.CELLS;
+import static com.example.slide.logic.BitBoard.DIM;
+import static com.example.slide.logic.BitBoard.FULL;
+
+/**
+ * Pure functions on a whole position packed into one {@code long}, in the
+ * layout of {@link BitBoard#key()}: X cells in bits 0-24, O cells in bits
+ * 25-49 and bit 50 set when O is to move. A packed board is a value, so
+ * copying it is free and it can be handed between threads, stored in a
+ * table or compared with {@code ==}; {@link SharedBoard} builds on that.
+ *
+ * <p>The rules are those of {@link GameBoard}, including a slide into a
+ * full line pushing the last token off and keeping the turn. The position
+ * has no history, so draws by repetition are left to the caller.
+ */
+public final class PackedBoard {
+    /** The empty board with X to move. */
+    public static final long START = 0L;
+
+    private static final long O_TO_MOVE = 1L << (2 * CELLS);
+
+    private PackedBoard() {
+    }
+
+    /** Packs any board backend. */
+    public static long of(Board board) {
+        return new BitBoard(board).key();
+    }
+
+    public static int xMask(long board) {
+        return (int) board & FULL;
+    }
+
+    public static int oMask(long board) {
+        return (int) (board >>> CELLS) & FULL;
+    }
+
+    public static Player toMove(long board) {
+        return (board & O_TO_MOVE) != 0 ? Player.O : Player.X;
+    }
+
+    public static Player cell(long board, int row, int col) {
+        int bit = 1 << (row * DIM + col);
+        if ((xMask(board) & bit) != 0) return Player.X;
+        if ((oMask(board) & bit) != 0) return Player.O;
+        return Player.BLANK;
+    }
+
+    /**
+     * Returns the board after the player to move slides into a line.
+     * @param index The move index 0-9, as in {@link BitBoard#moveIndex(char)}.
+     */
+    public static long apply(long board, int index) {
+        int x = xMask(board);
+        int o = oMask(board);
+        int line = BitBoard.MOVE_LINE[index];
+        int blanks = line & ~(x | o);
+        int stop = blanks | BitBoard.MOVE_LAST[index];
+        int target = stop & -stop;
+        int run = (target - 1) & line;
+        int keep = ~(run | target);
+        int step = BitBoard.MOVE_STEP[index];
+
+        x = (x & keep) | ((x & run) << step);
+        o = (o & keep) | ((o & run) << step);
+        long side = board & O_TO_MOVE;
+        if (side == 0) {
+            x |= BitBoard.MOVE_FIRST[index];
+        } else {
+            o |= BitBoard.MOVE_FIRST[index];
+        }
+        if (blanks != 0) {
+            side ^= O_TO_MOVE;
+        }
+        return x | (long) o << CELLS | side;
+    }
+
+    /**
+     * Returns the board after a move given as '1'-'5' or 'A'-'E'.
+     * @throws IllegalArgumentException If the character is not a move.
+     */
+    public static long submit(long board, char move) {
+        int index = BitBoard.moveIndex(move);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a move: " + move);
+        }
+        return apply(board, index);
+    }
+
+    /** Checks if the move from one board to the next passed the turn, as submitMove reports. */
+    public static boolean turnPassed(long before, long after) {
+        return ((before ^ after) & O_TO_MOVE) != 0;
+    }
+
+    /** Returns the owner of a complete line, in the order of {@link BitBoard#checkForWin()}, or BLANK. */
+    public static Player winner(long board) {
+        int x = xMask(board);
+        int o = oMask(board);
+        for (int line : BitBoard.LINES) {
+            if ((x & line) == line) return Player.X;
+            if ((o & line) == line) return Player.O;
+        }
+        return Player.BLANK;
+    }
+
+    public static boolean isFull(long board) {
+        return (xMask(board) | oMask(board)) == FULL;
+    }
+
+    public static boolean isTie(long board) {
+        return isFull(board) && winner(board) == Player.BLANK;
+    }
+
+    /** Checks if the game has ended in a win or a full board. */
+    public static boolean isOver(long board) {
+        return isFull(board) || winner(board) != Player.BLANK;
+    }
+}
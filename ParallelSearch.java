@@ -0,0 +1,120 @@
+package com.example.slide.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP: several {@link SearchEngine}s search the same root at once and
+ * share what they find through one {@link TranspositionTable}. Helpers vary
+ * their start depth and move order so they fill the table with results the
+ * main search can reuse; the main search's answer is the one played, and
+ * the helpers are stopped as soon as it returns.
+ */
+public class ParallelSearch implements Engine {
+    private final SearchEngine[] engines;
+    private final TranspositionTable table;
+    private final ExecutorService helpers;
+    private final AtomicBoolean helpersStop = new AtomicBoolean();
+
+    /**
+     * @param threads The number of search threads, including the calling thread.
+     * @param tableSizeMb The size of the shared table in megabytes.
+     */
+    public ParallelSearch(int threads, int tableSizeMb) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        table = new TranspositionTable(tableSizeMb);
+        engines = new SearchEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(table, i);
+            if (i > 0) {
+                engines[i].setSharedStop(helpersStop);
+            }
+        }
+        helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, r -> {
+            Thread t = new Thread(r, "search-helper");
+            t.setDaemon(true);
+            return t;
+        }) : null;
+    }
+
+    public int getThreads() {
+        return engines.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /** Lets the main thread answer book positions; helpers are stopped as soon as it returns. */
+    public void setOpeningBook(OpeningBook book) {
+        engines[0].setOpeningBook(book);
+    }
+
+    public void setListener(SearchListener listener) {
+        engines[0].setListener(listener);
+    }
+
+    /**
+     * Searches the position on every thread.
+     * @return The main search's result, with the nodes of all threads.
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        long start = System.nanoTime();
+        // The helpers' flag is this search's own; a pending stop is kept by the main engine
+        helpersStop.set(false);
+        List<Future<SearchResult>> running = new ArrayList<>();
+        for (int i = 1; i < engines.length; i++) {
+            SearchEngine helper = engines[i];
+            running.add(helpers.submit(() -> helper.search(position, limits)));
+        }
+
+        SearchResult main;
+        try {
+            main = engines[0].search(position, limits);
+        } finally {
+            helpersStop.set(true);
+        }
+
+        long nodes = main.getNodes();
+        for (Future<SearchResult> f : running) {
+            try {
+                nodes += f.get().getNodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        return new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(), nodes,
+                System.nanoTime() - start, main.getPrincipalVariation());
+    }
+
+    /** Clears a stop left over from an earlier search; see {@link SearchEngine#prepare()}. */
+    public void prepare() {
+        engines[0].prepare();
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from
+     * any thread; a stop that comes before the search starts is kept for it.
+     */
+    public void stop() {
+        engines[0].stop();
+        helpersStop.set(true);
+    }
+
+    /** Stops the helper threads for good. */
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
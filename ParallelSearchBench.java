@@ -0,0 +1,80 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.ParallelSearch;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+
+/**
+ * Measures Lazy SMP scaling: searches a set of positions to a fixed depth
+ * with 1 to N threads and prints time to depth, nodes per second and the
+ * speedup over one thread. The thread counts are 1 and the powers of two up
+ * to N, and N itself. Before the sweep the positions are searched untimed
+ * on one thread for a few seconds, until the JIT has compiled the search,
+ * and each count then gets one untimed pass of its own before the timed one.
+ *
+ * <p>Usage: {@code ParallelSearchBench [maxThreads] [depth] [tableSizeMb]}
+ */
+public class ParallelSearchBench {
+
+    private static final String[] POSITIONS = {"", "3C", "3CA15", "3CA15E2D", "12A32A1A2"};
+    private static final long WARMUP_MILLIS = 3000;
+
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+        int tableMb = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        ParallelSearch warmup = new ParallelSearch(1, tableMb);
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        do {
+            searchAll(warmup, depth);
+        } while (System.nanoTime() < warmupEnd);
+        warmup.shutdown();
+
+        System.out.printf("%-8s %10s %14s %14s %8s%n", "threads", "time(ms)", "nodes", "nps", "speedup");
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ParallelSearch search = new ParallelSearch(threads, tableMb);
+            searchAll(search, depth);
+            long[] timed = searchAll(search, depth);
+            long nanos = timed[0];
+            long nodes = timed[1];
+            System.out.println("  table, last position: " + search.getTable().getStatistics());
+            search.shutdown();
+
+            double millis = nanos / 1e6;
+            if (threads == 1) {
+                baseline = millis;
+            }
+            System.out.printf("%-8d %10.1f %14d %14d %8.2f%n", threads, millis, nodes,
+                    (long) (nodes / (nanos / 1e9)), baseline / millis);
+        }
+    }
+
+    /** Doubles the thread count, but stops at maxThreads rather than skipping it. */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+
+    /** Searches every position from an empty table; returns the total time in nanoseconds and nodes. */
+    private static long[] searchAll(ParallelSearch search, int depth) {
+        long nanos = 0;
+        long nodes = 0;
+        for (String moves : POSITIONS) {
+            BitBoard board = new BitBoard();
+            for (char move : moves.toCharArray()) {
+                board.submitMove(move);
+            }
+            search.getTable().clear();
+            long start = System.nanoTime();
+            SearchResult result = search.search(board, SearchLimits.depth(depth));
+            nanos += System.nanoTime() - start;
+            nodes += result.getNodes();
+        }
+        return new long[] {nanos, nodes};
+    }
+}
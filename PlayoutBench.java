@@ -0,0 +1,39 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.PlayoutKernel;
+
+/**
+ * Measures the random playout kernel: playout moves per second on one core
+ * and the win/loss/draw split from a few positions.
+ *
+ * <p>Usage: {@code PlayoutBench [playoutsPerPosition] [maxPlies]}
+ */
+public class PlayoutBench {
+
+    private static final String[] POSITIONS = {"", "3C", "3CA15", "3CA15E2D", "12A32A1A2"};
+    private static final int WARMUP_PLAYOUTS = 200_000;
+
+    public static void main(String[] args) {
+        int playouts = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int maxPlies = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        PlayoutKernel kernel = new PlayoutKernel(System.nanoTime());
+        kernel.run(new BitBoard(), WARMUP_PLAYOUTS, maxPlies);
+
+        System.out.printf("%-12s %10s %10s %10s %14s %14s%n", "position", "wins", "losses", "draws", "moves/s", "playouts/s");
+        for (String moves : POSITIONS) {
+            BitBoard board = new BitBoard();
+            for (char move : moves.toCharArray()) {
+                board.submitMove(move);
+            }
+            long movesBefore = kernel.getMoves();
+            long start = System.nanoTime();
+            long[] counts = kernel.run(board, playouts, maxPlies);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-12s %10d %10d %10d %14d %14d%n", moves.isEmpty() ? "start" : moves,
+                    counts[PlayoutKernel.WINS], counts[PlayoutKernel.LOSSES], counts[PlayoutKernel.DRAWS],
+                    (long) ((kernel.getMoves() - movesBefore) / seconds), (long) (playouts / seconds));
+        }
+    }
+}
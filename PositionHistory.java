@@ -0,0 +1,136 @@
+package com.example.slide.logic;
+
+import java.util.Arrays;
+
+/**
+ * A bounded ring of the most recent position hashes with an occurrence
+ * count per hash, so asking how often a position has been seen is O(1).
+ * When the ring is full the oldest position is forgotten.
+ */
+public class PositionHistory {
+    private static final long EMPTY = 0L;
+
+    private final long[] ring;
+    private final int ringMask;
+    private int head;
+    private int size;
+
+    // Open-addressed occurrence counts, linear probing with backward-shift deletion
+    private final long[] keys;
+    private final int[] counts;
+    private final int tableMask;
+    private int zeroCount; // hash 0 is the empty marker, so it is counted apart
+
+    /**
+     * @param capacity The number of positions remembered, rounded up to a power of two.
+     */
+    public PositionHistory(int capacity) {
+        int ringSize = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        ring = new long[ringSize];
+        ringMask = ringSize - 1;
+        keys = new long[ringSize * 2];
+        counts = new int[ringSize * 2];
+        tableMask = ringSize * 2 - 1;
+    }
+
+    /** Forgets every position. */
+    public void clear() {
+        head = 0;
+        size = 0;
+        zeroCount = 0;
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(counts, 0);
+    }
+
+    /** Records a position, evicting the oldest one if the ring is full. */
+    public void push(long hash) {
+        if (size == ring.length) {
+            decrement(ring[(head - size) & ringMask]);
+            size--;
+        }
+        ring[head] = hash;
+        head = (head + 1) & ringMask;
+        size++;
+        increment(hash);
+    }
+
+    /** Removes the most recently recorded position, as when a move is taken back. */
+    public long pop() {
+        if (size == 0) {
+            throw new IllegalStateException("History is empty");
+        }
+        head = (head - 1) & ringMask;
+        size--;
+        long hash = ring[head];
+        decrement(hash);
+        return hash;
+    }
+
+    /** Returns how many times the position occurs among the remembered ones. */
+    public int count(long hash) {
+        if (hash == EMPTY) {
+            return zeroCount;
+        }
+        int i = slot(hash);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == hash) {
+                return counts[i];
+            }
+            i = (i + 1) & tableMask;
+        }
+        return 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & tableMask;
+    }
+
+    private void increment(long hash) {
+        if (hash == EMPTY) {
+            zeroCount++;
+            return;
+        }
+        int i = slot(hash);
+        while (keys[i] != EMPTY && keys[i] != hash) {
+            i = (i + 1) & tableMask;
+        }
+        keys[i] = hash;
+        counts[i]++;
+    }
+
+    private void decrement(long hash) {
+        if (hash == EMPTY) {
+            zeroCount--;
+            return;
+        }
+        int i = slot(hash);
+        while (keys[i] != hash) {
+            i = (i + 1) & tableMask;
+        }
+        if (--counts[i] > 0) {
+            return;
+        }
+        // Shift later entries of the probe run back into the freed slot
+        int free = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & tableMask;
+            if (keys[j] == EMPTY) {
+                break;
+            }
+            int home = slot(keys[j]);
+            boolean between = free <= j ? (free < home && home <= j) : (free < home || home <= j);
+            if (!between) {
+                keys[free] = keys[j];
+                counts[free] = counts[j];
+                free = j;
+            }
+        }
+        keys[free] = EMPTY;
+        counts[free] = 0;
+    }
+}
@@ -0,0 +1,445 @@
+package com.example.slide.logic;
+
+/**
+ * Proves exact game values with a depth-first proof-number search (df-pn).
+ * From a position it answers whether the player to move has a forced win,
+ * a forced loss or neither, and for a decided position it returns a proven
+ * line of play.
+ *
+ * <p>Proof and disproof numbers are cached in a bounded table keyed by the
+ * canonical position (see {@link Symmetry}); when the table is full the
+ * entry that took less work to compute is replaced. A search can be
+ * cancelled from another thread, and a {@link ProgressListener} is told the
+ * root's numbers as the search goes.
+ *
+ * <p>Full-line push-offs keep the token count and the player to move, so
+ * they can cycle. A position that repeats on the current path counts as
+ * not won for the attacker. Such a result holds only for the path that
+ * produced it, so a disproof that rests on a repetition of an ancestor is
+ * kept on the search stack but never written to the table. That keeps
+ * cycles from looping forever and from poisoning the table.
+ */
+public class ProofNumberSolver {
+    public static final int INFINITY = Integer.MAX_VALUE / 2;
+    private static final int MAX_PLY = BitBoard.MAX_UNDO;
+    private static final int NO_REPETITION = Integer.MAX_VALUE;
+    private static final int PROGRESS_INTERVAL = 1 << 16;
+    private static final int DEFENDER_HORIZON = 3;
+    private static final long ATTACKER_O = 1L << (2 * BitBoard.CELLS + 1);
+    private static final int ENTRY_BYTES = Long.BYTES * 2 + Integer.BYTES;
+
+    /** Answer for the player to move. */
+    public enum Outcome {
+        WIN,
+        LOSS,
+        NEITHER,
+        UNKNOWN
+    }
+
+    /** Receives progress of a running proof. */
+    public interface ProgressListener {
+        /**
+         * @param nodes The nodes expanded so far in this proof.
+         * @param proofNumber The root's current proof number.
+         * @param disproofNumber The root's current disproof number.
+         */
+        void onProgress(long nodes, int proofNumber, int disproofNumber);
+    }
+
+    // Bounded table: canonical key, packed (pn << 32 | dn) and the work that produced it
+    private final long[] keys;
+    private final long[] numbers;
+    private final int[] work;
+    private final int mask;
+
+    // Search stack, preallocated per ply
+    private BitBoard board;
+    private final long[] pathKeys = new long[MAX_PLY + 1];
+    private final int[] pathStart = new int[MAX_PLY + 1];
+    private final int[][] childPn = new int[MAX_PLY][BitBoard.MOVES];
+    private final int[][] childDn = new int[MAX_PLY][BitBoard.MOVES];
+    private final int[][] childRepetition = new int[MAX_PLY][BitBoard.MOVES];
+
+    private Player attacker;
+    private Player rootPlayer;
+    private int resultPn;
+    private int resultDn;
+    private int resultRepetition;
+    private long nodes;
+    private long nodeLimit;
+    private boolean truncated;
+    private volatile boolean cancelled;
+    private ProgressListener listener;
+
+    /**
+     * @param tableMb The size of the proof table in megabytes.
+     */
+    public ProofNumberSolver(int tableMb) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) tableMb * 1024 * 1024 / ENTRY_BYTES));
+        entries = Math.min(entries, 1 << 28);
+        keys = new long[(int) entries];
+        numbers = new long[(int) entries];
+        work = new int[(int) entries];
+        mask = (int) entries - 1;
+        clear();
+    }
+
+    public void setProgressListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /** Cancels a running solve from any thread; it returns UNKNOWN soon after. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** Forgets every cached proof. */
+    public void clear() {
+        java.util.Arrays.fill(keys, -1L);
+    }
+
+    /**
+     * Solves a position.
+     * @param position The position; it is not modified.
+     * @param nodeLimit The most nodes to expand per proof attempt, or 0 for no limit.
+     * @return WIN or LOSS if the player to move can force the result, NEITHER if
+     *         neither player can, or UNKNOWN if cancelled or out of nodes.
+     */
+    public SolverResult solve(Board position, long nodeLimit) {
+        BitBoard root = new BitBoard(position);
+        Player mover = root.getCurrentPlayer();
+        Player opponent = mover == Player.X ? Player.O : Player.X;
+        cancelled = false;
+        long start = System.nanoTime();
+
+        Outcome outcome;
+        String line = "";
+        long total = 0;
+        int won = prove(root, mover, nodeLimit);
+        // A disproof that hit the ply cap is not a real one; keep that across the second attempt
+        boolean wonTruncated = truncated;
+        total += nodes;
+        if (won == 1) {
+            outcome = Outcome.WIN;
+            line = principalLine(root, nodeLimit);
+        } else if (won == 0) {
+            int lost = prove(root, opponent, nodeLimit);
+            total += nodes;
+            if (lost == 1) {
+                outcome = Outcome.LOSS;
+                line = principalLine(root, nodeLimit);
+            } else if (lost == 0 && !truncated && !wonTruncated) {
+                outcome = Outcome.NEITHER;
+            } else {
+                outcome = Outcome.UNKNOWN;
+            }
+        } else {
+            outcome = Outcome.UNKNOWN;
+        }
+        return new SolverResult(outcome, line, total, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs df-pn from the root for one attacker.
+     * @return 1 if proven, 0 if disproven, -1 if stopped before either.
+     */
+    private int prove(BitBoard root, Player attacker, long nodeLimit) {
+        this.attacker = attacker;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        nodes = 0;
+        truncated = false;
+        board = root.copy();
+        rootPlayer = board.getCurrentPlayer();
+        pathKeys[0] = board.key();
+        pathStart[0] = 0;
+
+        if (!terminal(0)) {
+            mid(INFINITY, INFINITY, 0);
+        }
+        if (resultPn == 0) return 1;
+        if (resultDn == 0) return 0;
+        return -1;
+    }
+
+    /**
+     * Scores the position at this ply if the proof is already decided there:
+     * a win or tie on the board, a repetition of the path, or the ply cap.
+     * @return true with resultPn/resultDn/resultRepetition set if decided.
+     */
+    private boolean terminal(int ply) {
+        resultRepetition = NO_REPETITION;
+        Player winner = board.checkForWin();
+        if (winner != Player.BLANK || board.isFull()) {
+            setResult(winner == attacker);
+            return true;
+        }
+        long key = pathKeys[ply];
+        for (int i = pathStart[ply]; i < ply; i++) {
+            if (pathKeys[i] == key) {
+                setResult(false);
+                resultRepetition = i;
+                return true;
+            }
+        }
+        if (ply == MAX_PLY - 1) {
+            // Treated like a repetition of the root, so it is never cached as exact
+            truncated = true;
+            setResult(false);
+            resultRepetition = 0;
+            return true;
+        }
+        return false;
+    }
+
+    private void setResult(boolean proven) {
+        resultPn = proven ? 0 : INFINITY;
+        resultDn = proven ? INFINITY : 0;
+    }
+
+    /** Expands the node at this ply until its numbers reach the thresholds. */
+    private void mid(int thresholdPn, int thresholdDn, int ply) {
+        boolean or = board.getCurrentPlayer() == attacker;
+        int[] pns = childPn[ply];
+        int[] dns = childDn[ply];
+        int[] reps = childRepetition[ply];
+        long startNodes = nodes;
+
+        for (int move = 0; move < BitBoard.MOVES; move++) {
+            boolean passed = board.makeMove(move);
+            pathKeys[ply + 1] = board.key();
+            pathStart[ply + 1] = passed ? ply + 1 : pathStart[ply];
+            if (!terminal(ply + 1)) {
+                lookup(pathKeys[ply + 1]);
+            }
+            pns[move] = resultPn;
+            dns[move] = resultDn;
+            reps[move] = resultRepetition;
+            board.unmakeMove();
+        }
+
+        int pn;
+        int dn;
+        while (true) {
+            pn = or ? min(pns) : sum(pns);
+            dn = or ? sum(dns) : min(dns);
+            if (pn >= thresholdPn || dn >= thresholdDn || stopped()) {
+                break;
+            }
+
+            // Most proving child and the runner-up value that bounds its threshold
+            int[] key = or ? pns : dns;
+            int best = 0;
+            int second = INFINITY;
+            for (int move = 1; move < BitBoard.MOVES; move++) {
+                if (key[move] < key[best]) {
+                    second = key[best];
+                    best = move;
+                } else if (key[move] < second) {
+                    second = key[move];
+                }
+            }
+            int childThresholdPn;
+            int childThresholdDn;
+            if (or) {
+                childThresholdPn = Math.min(thresholdPn, second + 1);
+                childThresholdDn = capped((long) thresholdDn - dn + dns[best]);
+            } else {
+                childThresholdPn = capped((long) thresholdPn - pn + pns[best]);
+                childThresholdDn = Math.min(thresholdDn, second + 1);
+            }
+
+            boolean passed = board.makeMove(best);
+            pathKeys[ply + 1] = board.key();
+            pathStart[ply + 1] = passed ? ply + 1 : pathStart[ply];
+            nodes++;
+            if ((nodes & (PROGRESS_INTERVAL - 1)) == 0 && listener != null) {
+                reportProgress();
+            }
+            mid(childThresholdPn, childThresholdDn, ply + 1);
+            board.unmakeMove();
+            pns[best] = resultPn;
+            dns[best] = resultDn;
+            reps[best] = resultRepetition;
+        }
+
+        // A disproof holds only as long as the repeated ancestors stay on the path
+        int repetition = NO_REPETITION;
+        if (dn == 0) {
+            for (int move = 0; move < BitBoard.MOVES; move++) {
+                if ((or || dns[move] == 0) && reps[move] < repetition) {
+                    repetition = reps[move];
+                }
+            }
+        }
+        resultPn = pn;
+        resultDn = dn;
+        resultRepetition = repetition;
+        if (repetition >= ply) {
+            store(pathKeys[ply], pn, dn, nodes - startNodes);
+        }
+    }
+
+    /** Reports the root's numbers as its frame on the stack currently has them. */
+    private void reportProgress() {
+        boolean or = rootPlayer == attacker;
+        int pn = or ? min(childPn[0]) : sum(childPn[0]);
+        int dn = or ? sum(childDn[0]) : min(childDn[0]);
+        listener.onProgress(nodes, pn, dn);
+    }
+
+    private boolean stopped() {
+        return cancelled || nodes >= nodeLimit;
+    }
+
+    private static int min(int[] values) {
+        int m = INFINITY;
+        for (int v : values) {
+            m = Math.min(m, v);
+        }
+        return m;
+    }
+
+    private static int sum(int[] values) {
+        long s = 0;
+        for (int v : values) {
+            s += v;
+        }
+        return capped(s);
+    }
+
+    private static int capped(long value) {
+        return (int) Math.min(value, INFINITY);
+    }
+
+    /** Canonical key with the attacker above the key bits, since numbers differ per attacker. */
+    private long tableKey(long key) {
+        long canonical = Symmetry.canonicalKey(key);
+        return attacker == Player.O ? canonical | ATTACKER_O : canonical;
+    }
+
+    private int slot(long canonical) {
+        return (int) Zobrist.mix(canonical) & mask;
+    }
+
+    /** Sets resultPn/resultDn from the table, or to 1/1 for a new node. */
+    private void lookup(long key) {
+        long canonical = tableKey(key);
+        int i = slot(canonical);
+        if (keys[i] == canonical) {
+            long packed = numbers[i];
+            resultPn = (int) (packed >>> 32);
+            resultDn = (int) packed;
+        } else {
+            resultPn = 1;
+            resultDn = 1;
+        }
+    }
+
+    private void store(long key, int pn, int dn, long effort) {
+        long canonical = tableKey(key);
+        int i = slot(canonical);
+        int w = (int) Math.min(effort, Integer.MAX_VALUE);
+        boolean decided = pn == 0 || dn == 0;
+        if (keys[i] == canonical || keys[i] == -1L || w >= work[i] || decided) {
+            keys[i] = canonical;
+            numbers[i] = (long) pn << 32 | (dn & 0xFFFFFFFFL);
+            work[i] = decided ? Integer.MAX_VALUE : w;
+        }
+    }
+
+    /**
+     * Follows proven moves from the root. The attacker plays a move whose
+     * position is proven, preferring an immediate win, then a move that passes
+     * the turn over a push-off. The defender avoids handing the attacker the
+     * win and prefers the reply after which the forced win is furthest away.
+     * A node whose proven children fell out of the table is proven again.
+     */
+    private String principalLine(BitBoard root, long nodeLimit) {
+        board = root.copy();
+        nodes = 0;
+        this.nodeLimit = nodeLimit > 0 ? nodeLimit : Long.MAX_VALUE;
+        StringBuilder line = new StringBuilder();
+        boolean retried = false;
+        pathKeys[0] = board.key();
+        pathStart[0] = 0;
+        for (int ply = 0; ply < MAX_PLY - 1; ply++) {
+            if (board.checkForWin() != Player.BLANK || board.isFull()) {
+                break;
+            }
+            boolean or = board.getCurrentPlayer() == attacker;
+            int chosen = -1;
+            int chosenRank = -1;
+            for (int move = 0; move < BitBoard.MOVES; move++) {
+                boolean passed = board.makeMove(move);
+                pathKeys[ply + 1] = board.key();
+                pathStart[ply + 1] = passed ? ply + 1 : pathStart[ply];
+                boolean proven = provenHere(ply + 1);
+                int rank = or
+                        ? (board.checkForWin() == attacker ? 2 : passed ? 1 : 0)
+                        : 2 * winDistance(Math.min(DEFENDER_HORIZON, MAX_PLY - 1 - ply)) + (passed ? 1 : 0);
+                board.unmakeMove();
+                if (proven && rank > chosenRank) {
+                    chosen = move;
+                    chosenRank = rank;
+                }
+            }
+            if (chosen < 0) {
+                // The proven children were evicted from the table: prove this node again
+                if (retried || stopped()) {
+                    break;
+                }
+                retried = true;
+                mid(INFINITY, INFINITY, ply);
+                ply--;
+                continue;
+            }
+            retried = false;
+            boolean passed = board.makeMove(chosen);
+            pathKeys[ply + 1] = board.key();
+            pathStart[ply + 1] = passed ? ply + 1 : pathStart[ply];
+            line.append(BitBoard.moveChar(chosen));
+        }
+        return line.toString();
+    }
+
+    /**
+     * The number of plies within which the attacker forces a win from the
+     * board, up to the horizon; one more if the win is further away.
+     */
+    private int winDistance(int horizon) {
+        for (int plies = 0; plies <= horizon; plies++) {
+            if (forcedWithin(plies)) {
+                return plies;
+            }
+        }
+        return horizon + 1;
+    }
+
+    private boolean forcedWithin(int plies) {
+        Player winner = board.checkForWin();
+        if (winner != Player.BLANK || board.isFull()) {
+            return winner == attacker;
+        }
+        if (plies == 0) {
+            return false;
+        }
+        boolean or = board.getCurrentPlayer() == attacker;
+        for (int move = 0; move < BitBoard.MOVES; move++) {
+            board.makeMove(move);
+            boolean forced = forcedWithin(plies - 1);
+            board.unmakeMove();
+            if (forced == or) {
+                return or;
+            }
+        }
+        return !or;
+    }
+
+    private boolean provenHere(int ply) {
+        if (terminal(ply)) {
+            return resultPn == 0;
+        }
+        lookup(pathKeys[ply]);
+        return resultPn == 0;
+    }
+}
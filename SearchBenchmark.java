@@ -0,0 +1,79 @@
+package com.example.slide.bench;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.ParallelSearch;
+import com.example.slide.logic.SearchLimits;
+import com.example.slide.logic.SearchResult;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of a fixed-depth search from a few positions, per search
+ * thread count. The transposition table is cleared before every search so
+ * each one starts cold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] POSITIONS = {"", "3CA15", "12A32A1A2"};
+
+    @Param({"6", "8"})
+    public int depth;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"16"})
+    public int tableSizeMb;
+
+    private ParallelSearch search;
+    private BitBoard[] boards;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        search = new ParallelSearch(threads, tableSizeMb);
+        boards = new BitBoard[POSITIONS.length];
+        for (int i = 0; i < POSITIONS.length; i++) {
+            boards[i] = new BitBoard();
+            for (char move : POSITIONS[i].toCharArray()) {
+                boards[i].submitMove(move);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult searchToDepth() {
+        BitBoard board = boards[next++ % boards.length];
+        return search.search(board, SearchLimits.depth(depth));
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.slide.logic;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses moves for the computer player with an iteratively deepened
+ * negamax search with alpha-beta pruning. The whole search walks a single
+ * {@link BitBoard} with makeMove/unmakeMove, and a position that repeats
+ * on the current line of play is scored as a draw. Only push-off slides keep
+ * the token count, so a repetition can only reach back to the last move
+ * that filled a blank.
+ * Every search runs under a {@link SearchLimits} budget; once the time or
+ * node ceiling is hit the move of the last completed iteration is played.
+ *
+ * <p>A slide into a full line does not pass the turn (see
+ * {@link GameBoard#submitMove}), so a child is only negated when the player
+ * to move actually changed.
+ *
+ * <p>Moves are tried in the order of a {@link MoveOrderer}.
+ *
+ * <p>Results are cached in a {@link TranspositionTable}, which several
+ * engines may share to search the same root in parallel (see
+ * {@link ParallelSearch}). Entries are keyed by the canonical form of the
+ * position under {@link Symmetry}, with the best move stored in that frame.
+ *
+ * <p>Nodes and table lookups feed the {@link Instrumentation} counters, and
+ * each completed iteration goes to the installed {@link Tracer}.
+ */
+public class SearchEngine implements Engine {
+    public static final int WIN_SCORE = 30_000;
+    private static final int INFINITY = 32_000;
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH + 1;
+    private static final int TIME_CHECK_MASK = 1023;
+    private static final int DEFAULT_TABLE_MB = 1;
+
+    private final TranspositionTable table;
+    private final int helperId;
+
+    private final char[][] pv = new char[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final long[] pathKeys = new long[MAX_PLY + 1];
+    private final int[] pathStart = new int[MAX_PLY + 1];
+    private final int[][] moveOrder = new int[MAX_PLY][BitBoard.MOVES];
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private boolean moveOrdering = true;
+
+    private SearchListener listener;
+    private OpeningBook book;
+    private AtomicBoolean sharedStop;
+    private volatile boolean stopRequested;
+    private boolean aborted;
+    private boolean interruptible;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+
+    public SearchEngine() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB), 0);
+    }
+
+    /**
+     * @param table The transposition table, possibly shared with other engines.
+     * @param helperId 0 for the main search; helpers of a parallel search use
+     *                 1, 2, ... to vary their start depth and move order.
+     */
+    public SearchEngine(TranspositionTable table, int helperId) {
+        this.table = table;
+        this.helperId = helperId;
+    }
+
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /** Turns the move ordering heuristics on or off; when off only the table move is tried first. */
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    /** Plays positions found in the book without searching; null to stop. */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    public MoveOrderer getMoveOrderer() {
+        return orderer;
+    }
+
+    /** Sets a flag that stops this engine's searches when raised, shared by the threads of a parallel search. */
+    void setSharedStop(AtomicBoolean sharedStop) {
+        this.sharedStop = sharedStop;
+    }
+
+    /**
+     * Asks a running search to return as soon as possible. Safe to call from
+     * any thread. A stop that comes before the search starts is kept for it,
+     * until {@link #prepare()} or the end of the next search clears it.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Clears a stop left over from an earlier search. A caller that hands the
+     * search to another thread calls this first, on its own thread, so that a
+     * stop sent in between reaches the search instead of being cleared by it.
+     */
+    public void prepare() {
+        stopRequested = false;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /** Returns the nodes searched so far by the current or last search. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Searches the position for the best move of the player to move.
+     * @param position The position to search; it is not modified.
+     * @param limits The depth, time and node budget.
+     * @return The result of the deepest completed iteration.
+     */
+    public SearchResult search(Board position, SearchLimits limits) {
+        BitBoard root = new BitBoard(position);
+        if (root.checkForWin() != Player.BLANK || root.isFull()) {
+            throw new IllegalStateException("The game is already over");
+        }
+
+        long start = System.nanoTime();
+        long entry = book != null ? book.probe(root.key()) : OpeningBook.NO_ENTRY;
+        if (entry != OpeningBook.NO_ENTRY) {
+            char move = BitBoard.moveChar(OpeningBook.move(entry));
+            stopRequested = false;
+            return new SearchResult(move, OpeningBook.score(entry), OpeningBook.depth(entry), 0,
+                    System.nanoTime() - start, String.valueOf(move));
+        }
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        nodeLimit = limits.getNodeLimit() > 0 ? limits.getNodeLimit() : Long.MAX_VALUE;
+        nodes = 0;
+        aborted = false;
+        pathKeys[0] = root.key();
+        pathStart[0] = 0;
+        if (helperId == 0) {
+            table.newSearch();
+        }
+        orderer.newSearch();
+
+        SearchResult best = null;
+        // Every other helper starts one ply deeper so the threads spread over depths
+        int firstDepth = Math.min(1 + helperId % 2, limits.getMaxDepth());
+        // The first iteration ignores the budget so there is always a complete one to answer with
+        interruptible = false;
+        for (int depth = firstDepth; depth <= limits.getMaxDepth(); depth++) {
+            int score = negamax(root, depth, -INFINITY, INFINITY, 0);
+            interruptible = true;
+            if (aborted) {
+                break;
+            }
+            best = new SearchResult(pv[0][0], score, depth, nodes, System.nanoTime() - start,
+                    new String(pv[0], 0, pvLength[0]));
+            if (listener != null) {
+                listener.onIteration(best);
+            }
+            Tracer tracer = Instrumentation.tracer();
+            if (tracer != null) {
+                tracer.onSearchIteration(helperId, best);
+            }
+            if (Math.abs(score) > WIN_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+        // The stop, if any, was for this search
+        stopRequested = false;
+        if (Instrumentation.ENABLED) {
+            Instrumentation.add(Instrumentation.Counter.SEARCH_NODES, nodes);
+        }
+        return new SearchResult(best.getBestMove(), best.getScore(), best.getDepth(), nodes,
+                System.nanoTime() - start, best.getPrincipalVariation());
+    }
+
+    private int negamax(BitBoard board, int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        nodes++;
+        // Checked on every node, leaves included, so the masked clock read is never skipped
+        if (ply > 0 && interruptible && outOfBudget()) {
+            aborted = true;
+            return 0;
+        }
+
+        Player winner = board.checkForWin();
+        if (winner != Player.BLANK) {
+            return winner == board.getCurrentPlayer() ? WIN_SCORE - ply : -(WIN_SCORE - ply);
+        }
+        if (board.isFull()) {
+            return 0;
+        }
+        if (isRepetition(ply)) {
+            return 0;
+        }
+        if (depth == 0 || ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(board);
+        }
+
+        long key = pathKeys[ply];
+        long transposed = Symmetry.transposeKey(key);
+        boolean flipped = transposed < key;
+        long hash = Zobrist.mix(flipped ? transposed : key);
+        long entry = table.probe(hash);
+        if (Instrumentation.ENABLED) {
+            Instrumentation.count(Instrumentation.Counter.TABLE_PROBES);
+            if (entry != 0) Instrumentation.count(Instrumentation.Counter.TABLE_HITS);
+        }
+        int ttMove = TranspositionTable.NO_MOVE;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (flipped && ttMove != TranspositionTable.NO_MOVE) {
+                ttMove = Symmetry.transposeMove(ttMove);
+            }
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int[] moves = orderMoves(board, ply, ttMove);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < BitBoard.MOVES; i++) {
+            int move = moves[i];
+            boolean passed = board.makeMove(move);
+            pathKeys[ply + 1] = board.key();
+            pathStart[ply + 1] = passed ? ply + 1 : pathStart[ply];
+            int score = passed
+                    ? -negamax(board, depth - 1, -beta, -alpha, ply + 1)
+                    : negamax(board, depth - 1, alpha, beta, ply + 1);
+            board.unmakeMove();
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                updatePv(ply, move);
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        orderer.cutoff(board, ply, move, depth, i);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best <= originalAlpha ? TranspositionTable.UPPER : TranspositionTable.EXACT;
+        if (flipped && bestMove != TranspositionTable.NO_MOVE) {
+            bestMove = Symmetry.transposeMove(bestMove);
+        }
+        table.store(hash, depth, toTable(best, ply), bound, bestMove);
+        return best;
+    }
+
+    /** Orders the moves of a ply, rotating ties by the helper id. */
+    private int[] orderMoves(BitBoard board, int ply, int ttMove) {
+        int[] moves = moveOrder[ply];
+        if (moveOrdering) {
+            orderer.order(board, ply, ttMove, helperId, moves);
+            return moves;
+        }
+        int n = 0;
+        if (ttMove != TranspositionTable.NO_MOVE) {
+            moves[n++] = ttMove;
+        }
+        for (int i = 0; i < BitBoard.MOVES; i++) {
+            int move = (i + helperId) % BitBoard.MOVES;
+            if (move != ttMove) {
+                moves[n++] = move;
+            }
+        }
+        return moves;
+    }
+
+    /** Stores win scores relative to the node so they stay valid at any ply. */
+    private static int toTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) return score + ply;
+        if (score < -(WIN_SCORE - MAX_PLY)) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - MAX_PLY) return score - ply;
+        if (score < -(WIN_SCORE - MAX_PLY)) return score + ply;
+        return score;
+    }
+
+    /** Checks if the position at this ply already occurred since the last move that filled a blank. */
+    private boolean isRepetition(int ply) {
+        long key = pathKeys[ply];
+        for (int i = pathStart[ply]; i < ply; i++) {
+            if (pathKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Makes the move followed by the child's line the principal variation of this ply. */
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = BitBoard.moveChar(move);
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    private boolean outOfBudget() {
+        if (aborted || stopRequested || nodes >= nodeLimit || (sharedStop != null && sharedStop.get())) {
+            return true;
+        }
+        return (nodes & TIME_CHECK_MASK) == 0 && System.nanoTime() >= deadline;
+    }
+}
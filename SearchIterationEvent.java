@@ -0,0 +1,40 @@
+package com.example.slide.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** One completed iteration of a search. */
+@Name("com.example.slide.SearchIteration")
+@Label("Search Iteration")
+@Category({"Tic-Tac-Slide", "Search"})
+@StackTrace(false)
+public class SearchIterationEvent extends jdk.jfr.Event {
+    @Label("Helper")
+    @Description("0 for the main search, otherwise the helper thread of a parallel search")
+    int helperId;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Score")
+    @Description("Score from the point of view of the player to move")
+    int score;
+
+    @Label("Best Move")
+    char bestMove;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Search Time")
+    @Description("Time from the start of the search to the end of this iteration")
+    @Timespan(Timespan.MILLISECONDS)
+    long searchTime;
+
+    @Label("Principal Variation")
+    String principalVariation;
+}
@@ -0,0 +1,50 @@
+package com.example.slide.logic;
+
+/**
+ * Budget for one search: a maximum depth plus hard ceilings on wall-clock
+ * time and nodes. The first ply is always searched in full so a move is
+ * available even with a tiny budget.
+ */
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+
+    private final int maxDepth;
+    private final long timeMillis;
+    private final long nodeLimit;
+
+    /**
+     * @param maxDepth The deepest iteration to run, at most {@link #MAX_DEPTH}.
+     * @param timeMillis The time ceiling in milliseconds, or 0 for none.
+     * @param nodeLimit The node ceiling, or 0 for none.
+     */
+    public SearchLimits(int maxDepth, long timeMillis, long nodeLimit) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1: " + maxDepth);
+        }
+        this.maxDepth = Math.min(maxDepth, MAX_DEPTH);
+        this.timeMillis = timeMillis;
+        this.nodeLimit = nodeLimit;
+    }
+
+    /** Returns the budget of a difficulty level. */
+    public static SearchLimits of(DifficultyLevel level) {
+        return new SearchLimits(level.getMaxDepth(), level.getTimeMillis(), level.getNodeLimit());
+    }
+
+    /** Returns a budget limited by depth only. */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getNodeLimit() {
+        return nodeLimit;
+    }
+}
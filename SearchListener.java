@@ -0,0 +1,12 @@
+package com.example.slide.logic;
+
+/**
+ * This interface is used to listen for progress of a search.
+ */
+public interface SearchListener {
+    /**
+     * Called each time an iteration of the search completes.
+     * @param result The best move, score and statistics so far.
+     */
+    void onIteration(SearchResult result);
+}
@@ -0,0 +1,65 @@
+package com.example.slide.logic;
+
+/**
+ * Outcome of a search (or of one completed iteration of it).
+ */
+public class SearchResult {
+    private final char bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+    private final String principalVariation;
+
+    public SearchResult(char bestMove, int score, int depth, long nodes, long nanos, String principalVariation) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.principalVariation = principalVariation;
+    }
+
+    /** The move to play, '1'-'5' or 'A'-'E'. */
+    public char getBestMove() {
+        return bestMove;
+    }
+
+    /** Score from the point of view of the player to move. */
+    public int getScore() {
+        return score;
+    }
+
+    /** Depth of the last completed iteration. */
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return nanos / 1_000_000L;
+    }
+
+    public long getNodesPerSecond() {
+        return nanos > 0 ? nodes * 1_000_000_000L / nanos : 0;
+    }
+
+    /** The expected line of play as move characters, starting with the best move. */
+    public String getPrincipalVariation() {
+        return principalVariation;
+    }
+
+    /** Checks if the score is a forced win or loss. */
+    public boolean isDecisive() {
+        return Math.abs(score) > SearchEngine.WIN_SCORE - SearchLimits.MAX_DEPTH * 4;
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " nps " + getNodesPerSecond()
+                + " time " + getTimeMillis() + " pv " + principalVariation;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.slide.logic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A game that several threads (UI, computer player, network) can share
+ * without locks. The whole position is one {@link PackedBoard} value in an
+ * {@link AtomicLong}: a reader gets a consistent snapshot with a single
+ * read, and a move is a compare-and-swap from the position it was made on
+ * to the position after it, so two moves can never interleave.
+ *
+ * <p>{@link #submit(Player, char)} suits a source that owns a side, such as
+ * a network player: it retries until the move lands or it is no longer
+ * that side's turn. {@link #compareAndSubmit(long, char)} suits a source
+ * that decided on a snapshot, such as the computer player: the move lands
+ * only if nothing moved since.
+ */
+public class SharedBoard {
+    /** Returned by {@link #submit(Player, char)} when the move was not played. */
+    public static final long REJECTED = -1L;
+
+    private final AtomicLong state;
+
+    public SharedBoard() {
+        this(PackedBoard.START);
+    }
+
+    /** @param board The starting position, as a {@link PackedBoard}. */
+    public SharedBoard(long board) {
+        state = new AtomicLong(board);
+    }
+
+    /** Returns the current position as a {@link PackedBoard}. */
+    public long get() {
+        return state.get();
+    }
+
+    /**
+     * Plays a move for a side, if it is that side's turn and the game is on.
+     * @return The position after the move, or {@link #REJECTED}.
+     */
+    public long submit(Player mover, char move) {
+        int index = BitBoard.moveIndex(move);
+        if (index < 0) {
+            return REJECTED;
+        }
+        while (true) {
+            long current = state.get();
+            if (PackedBoard.toMove(current) != mover || PackedBoard.isOver(current)) {
+                return REJECTED;
+            }
+            long next = PackedBoard.apply(current, index);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Plays a move only if the position is still the one it was chosen on.
+     * @param expected The snapshot the move was chosen on.
+     * @return True if the move was played.
+     */
+    public boolean compareAndSubmit(long expected, char move) {
+        int index = BitBoard.moveIndex(move);
+        if (index < 0 || PackedBoard.isOver(expected)) {
+            return false;
+        }
+        return state.compareAndSet(expected, PackedBoard.apply(expected, index));
+    }
+
+    /** Starts a new game. */
+    public void reset() {
+        state.set(PackedBoard.START);
+    }
+}
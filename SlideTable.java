@@ -0,0 +1,135 @@
+package com.example.slide.logic;
+
+/**
+ * Precomputed slide transitions for a single 5-cell line.
+ * A line is encoded as a base-3 index where cell i (0 is the cell a token
+ * enters at) contributes {@code digit * 3^i}, with BLANK = 0, X = 1, O = 2.
+ * For each of the 243 line contents and each player the table holds the
+ * line after a slide packed into one int:
+ * <pre>
+ *   bits 0-7   next line index
+ *   bits 8-9   digit of the token pushed off the end (0 if none)
+ *   bit  10    legal (the line had a blank, so submitMove returns true)
+ *   bits 11-13 cell the slide filled (the first blank, or 4 on a full line)
+ *   bits 16-20 X cells of the next line, bit i for cell i
+ *   bits 21-25 O cells of the next line, bit i for cell i
+ * </pre>
+ */
+public final class SlideTable {
+    public static final int LINE = 5;
+    public static final int CODES = 243;
+
+    public static final int BLANK = 0;
+    public static final int X = 1;
+    public static final int O = 2;
+
+    static final int[] POW3 = {1, 3, 9, 27, 81};
+    static final Player[] TOKENS = {Player.BLANK, Player.X, Player.O};
+
+    /** Digit of cell i of line code c at {@code DIGITS[c * LINE + i]}. */
+    static final byte[] DIGITS = new byte[CODES * LINE];
+    /** Winner digit of a complete line, or BLANK. */
+    static final byte[] WINNER = new byte[CODES];
+
+    private static final int[] TRANSITIONS = new int[2 * CODES];
+
+    static {
+        for (int code = 0; code < CODES; code++) {
+            int rest = code;
+            for (int i = 0; i < LINE; i++) {
+                DIGITS[code * LINE + i] = (byte) (rest % 3);
+                rest /= 3;
+            }
+            int first = DIGITS[code * LINE];
+            WINNER[code] = (byte) first;
+            for (int i = 1; i < LINE; i++) {
+                if (DIGITS[code * LINE + i] != first) {
+                    WINNER[code] = BLANK;
+                    break;
+                }
+            }
+            TRANSITIONS[code] = compute(code, X);
+            TRANSITIONS[CODES + code] = compute(code, O);
+        }
+    }
+
+    private SlideTable() {
+    }
+
+    /** Performs one slide the way GameBoard.slideColumn/slideRow do and packs the result. */
+    private static int compute(int code, int player) {
+        int[] cells = new int[LINE];
+        for (int i = 0; i < LINE; i++) {
+            cells[i] = DIGITS[code * LINE + i];
+        }
+        int newVal = player;
+        int filled = LINE - 1;
+        boolean legal = false;
+        for (int i = 0; i < LINE; i++) {
+            if (cells[i] == BLANK) {
+                cells[i] = newVal;
+                newVal = BLANK;
+                filled = i;
+                legal = true;
+                break;
+            }
+            int temp = cells[i];
+            cells[i] = newVal;
+            newVal = temp;
+        }
+
+        int next = 0;
+        int xBits = 0;
+        int oBits = 0;
+        for (int i = 0; i < LINE; i++) {
+            next += cells[i] * POW3[i];
+            if (cells[i] == X) xBits |= 1 << i;
+            if (cells[i] == O) oBits |= 1 << i;
+        }
+        return next | newVal << 8 | (legal ? 1 << 10 : 0) | filled << 11 | xBits << 16 | oBits << 21;
+    }
+
+    /**
+     * Looks up the result of sliding a token into a line.
+     * @param line The base-3 index of the line.
+     * @param player The digit of the sliding player, X or O.
+     * @return The packed transition, read with the accessors below.
+     */
+    public static int slide(int line, int player) {
+        return TRANSITIONS[(player - 1) * CODES + line];
+    }
+
+    public static int nextLine(int transition) {
+        return transition & 0xFF;
+    }
+
+    public static int pushedOff(int transition) {
+        return (transition >>> 8) & 3;
+    }
+
+    public static boolean isLegal(int transition) {
+        return (transition & (1 << 10)) != 0;
+    }
+
+    public static int filledCell(int transition) {
+        return (transition >>> 11) & 7;
+    }
+
+    public static int xBits(int transition) {
+        return (transition >>> 16) & 0x1F;
+    }
+
+    public static int oBits(int transition) {
+        return (transition >>> 21) & 0x1F;
+    }
+
+    /** Returns the digit of cell i of a line. */
+    public static int digit(int line, int i) {
+        return DIGITS[line * LINE + i];
+    }
+
+    /** Converts a digit back to its Player. */
+    public static Player token(int digit) {
+        return TOKENS[digit];
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.slide.logic;
+
+/**
+ * Outcome of a {@link ProofNumberSolver} run.
+ */
+public class SolverResult {
+    private final ProofNumberSolver.Outcome outcome;
+    private final String principalLine;
+    private final long nodes;
+    private final long nanos;
+
+    public SolverResult(ProofNumberSolver.Outcome outcome, String principalLine, long nodes, long nanos) {
+        this.outcome = outcome;
+        this.principalLine = principalLine;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /** The game value for the player to move. */
+    public ProofNumberSolver.Outcome getOutcome() {
+        return outcome;
+    }
+
+    /** A proven line as move characters for a WIN or LOSS, empty otherwise. */
+    public String getPrincipalLine() {
+        return principalLine;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return nanos / 1_000_000L;
+    }
+
+    public long getNodesPerSecond() {
+        return nanos > 0 ? nodes * 1_000_000_000L / nanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        return outcome + (principalLine.isEmpty() ? "" : " line " + principalLine)
+                + " nodes " + nodes + " time " + getTimeMillis() + "ms";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.slide.tools;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.ProofNumberSolver;
+import com.example.slide.logic.SolverResult;
+
+/**
+ * Solves a position with the proof-number solver and prints its value and
+ * a proven line. With no moves it answers whether the start position is a
+ * first-player win.
+ *
+ * <p>Usage: {@code SolverTool [moves|-] [tableSizeMb] [nodeLimit]}; the table
+ * defaults to a quarter of the maximum heap, at most 256 MB.
+ */
+public class SolverTool {
+    private static final int DEFAULT_TABLE_MB = 256;
+
+    public static void main(String[] args) {
+        String moves = args.length > 0 && !args[0].equals("-") ? args[0] : "";
+        int tableMb = args.length > 1 ? Integer.parseInt(args[1]) : defaultTableMb();
+        long nodeLimit = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        BitBoard board = new BitBoard();
+        for (char move : moves.toCharArray()) {
+            board.submitMove(move);
+        }
+
+        ProofNumberSolver solver = new ProofNumberSolver(tableMb);
+        long start = System.nanoTime();
+        solver.setProgressListener((nodes, pn, dn) -> System.out.printf("  %,d nodes  pn %d  dn %d  %.1fs%n",
+                nodes, pn, dn, (System.nanoTime() - start) / 1e9));
+
+        SolverResult result = solver.solve(board, nodeLimit);
+        System.out.println("position '" + moves + "', " + board.getCurrentPlayer() + " to move: " + result);
+    }
+
+    /** A table of at most a quarter of the maximum heap, and no more than 256 MB. */
+    static int defaultTableMb() {
+        long quarterMb = Runtime.getRuntime().maxMemory() / 4 / (1024 * 1024);
+        return (int) Math.max(1, Math.min(DEFAULT_TABLE_MB, quarterMb));
+    }
+}
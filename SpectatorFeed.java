@@ -0,0 +1,221 @@
+package com.example.slide.server;
+
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.Board;
+import com.example.slide.logic.Player;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans the moves of one match out to its spectators as {@link DeltaFrame}s.
+ *
+ * <p>Each move is encoded once into an immutable array and the reference is
+ * queued for every watcher, so publishing costs one queue offer per watcher
+ * and the bytes are never copied per client. Every watcher has its own
+ * writer on a virtual thread that drains its queue to the socket.
+ *
+ * <p>Publishing never waits for a watcher. When a watcher's queue is full,
+ * its queued deltas are discarded and replaced by one snapshot of the
+ * board, so it catches up in a single frame. A watcher that needs more than
+ * {@link #MAX_RESYNCS} of those without once emptying its queue is dropped.
+ * The game itself only ever pays for the offers.
+ *
+ * <p>When the match ends the feed is closed: every watcher gets an end
+ * frame after its queued ones, its writer stops and its connection is
+ * closed. A watcher that subscribes later gets the snapshot and the end.
+ */
+final class SpectatorFeed {
+    static final int QUEUE_FRAMES = 64;
+    static final int MAX_RESYNCS = 2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CopyOnWriteArrayList<Watcher> watchers = new CopyOnWriteArrayList<>();
+
+    // Guarded by lock
+    private final BitBoard board;
+    private int seq;
+    private byte[] snapshot;
+    private byte[] end;
+
+    /** @param position The board when the feed opens; later moves come through {@link #publish}. */
+    SpectatorFeed(Board position) {
+        board = new BitBoard(position);
+    }
+
+    /** Publishes a move made in the match. Called in move order. */
+    void publish(char move) {
+        int index = BitBoard.moveIndex(move);
+        lock.lock();
+        try {
+            if (end != null) {
+                return;
+            }
+            Player pushedOff = Player.BLANK;
+            if (isLineFull(index)) {
+                pushedOff = DeltaFrame.lineCell(board, index, BitBoard.DIM - 1);
+            }
+            board.submitMove(move);
+            seq++;
+            snapshot = null;
+            byte[] frame = DeltaFrame.delta(seq, board, index, pushedOff);
+            for (Watcher watcher : watchers) {
+                if (!watcher.queue.offer(frame)) {
+                    overflow(watcher);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends the feed; later calls do nothing.
+     * @param result The winner, TIE for a draw, or BLANK when the match ended without a result.
+     */
+    void close(Player result) {
+        lock.lock();
+        try {
+            if (end != null) {
+                return;
+            }
+            end = DeltaFrame.end(seq, result);
+            for (Watcher watcher : watchers) {
+                finish(watcher);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Queues the end frame, after a snapshot if the deltas do not fit. Called with the lock held. */
+    private void finish(Watcher watcher) {
+        if (!watcher.queue.offer(end)) {
+            watcher.queue.clear();
+            watcher.queue.offer(snapshot());
+            watcher.queue.offer(end);
+        }
+    }
+
+    private boolean isLineFull(int index) {
+        for (int i = 0; i < BitBoard.DIM; i++) {
+            if (DeltaFrame.lineCell(board, index, i) == Player.BLANK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Resyncs a watcher that fell behind, or drops it if it keeps doing so. Called with the lock held. */
+    private void overflow(Watcher watcher) {
+        if (watcher.resyncs.incrementAndGet() > MAX_RESYNCS) {
+            remove(watcher);
+            return;
+        }
+        watcher.queue.clear();
+        watcher.queue.offer(snapshot());
+    }
+
+    /** Returns the snapshot of the current board, built at most once per move. Called with the lock held. */
+    private byte[] snapshot() {
+        if (snapshot == null) {
+            snapshot = DeltaFrame.snapshot(seq, board);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Adds a watcher, which gets a snapshot first.
+     * @param out The stream to write frames to.
+     * @param onDrop Run if the watcher is dropped for falling behind or a failed write.
+     */
+    Watcher subscribe(OutputStream out, Runnable onDrop) {
+        Watcher watcher = new Watcher(out, onDrop);
+        lock.lock();
+        try {
+            watcher.queue.offer(snapshot());
+            if (end != null) {
+                watcher.queue.offer(end);
+            }
+            watchers.add(watcher);
+        } finally {
+            lock.unlock();
+        }
+        watcher.writer = Thread.ofVirtual().name("spectator").start(watcher::drain);
+        if (watcher.stopped) {
+            watcher.writer.interrupt();
+        }
+        return watcher;
+    }
+
+    /** Removes a watcher that left; its writer stops. */
+    void unsubscribe(Watcher watcher) {
+        watchers.remove(watcher);
+        watcher.stop();
+    }
+
+    int getWatcherCount() {
+        return watchers.size();
+    }
+
+    private void remove(Watcher watcher) {
+        if (watchers.remove(watcher)) {
+            watcher.stop();
+            watcher.onDrop.run();
+        }
+    }
+
+    /** One spectator: a bounded queue of shared frames and the thread writing them. */
+    final class Watcher {
+        private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE_FRAMES);
+        private final OutputStream out;
+        private final Runnable onDrop;
+        private final AtomicInteger resyncs = new AtomicInteger();
+        private volatile Thread writer;
+        private volatile boolean stopped;
+
+        private Watcher(OutputStream out, Runnable onDrop) {
+            this.out = out;
+            this.onDrop = onDrop;
+        }
+
+        private void drain() {
+            try {
+                while (!stopped) {
+                    byte[] frame = queue.take();
+                    out.write(frame);
+                    if (frame[0] == DeltaFrame.END) {
+                        break;
+                    }
+                    if (queue.isEmpty() && resyncs.get() != 0) {
+                        resyncs.set(0);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // Dropped below
+            }
+            // The match ended or the write failed: the connection is done
+            lock.lock();
+            try {
+                remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void stop() {
+            stopped = true;
+            Thread t = writer;
+            if (t != null) {
+                t.interrupt();
+            }
+        }
+    }
+}
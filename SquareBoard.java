@@ -0,0 +1,250 @@
+package com.example.slide.logic;
+
+/**
+ * Board of any size from 4x4 to 8x8 with a configurable win length, for
+ * event variants. Occupancy is a pair of {@code long} masks with cell
+ * (row, col) at bit row * dim + col, so the slide is the same few mask
+ * operations as in {@link BitBoard}.
+ *
+ * <p>Moves are '1' up to the column count for columns and 'A' onwards for
+ * rows; move index 0 to dim-1 is a column and dim to 2*dim-1 a row. A win
+ * is winLength tokens in a row along a row, column or diagonal. When both
+ * players have one, the first window found wins: rows, then columns, then
+ * diagonals, then anti-diagonals, and within each direction the window that
+ * starts at the lowest cell, X before O. On 5x5 with a win length of 5 this
+ * is the order of {@link GameBoard#checkForWin()}.
+ *
+ * <p>Use {@link #create(int, int)} to get a board; it returns the
+ * specialized {@link BitBoard} for the standard 5x5 game.
+ */
+public class SquareBoard implements Board {
+    public static final int MIN_DIM = 4;
+    public static final int MAX_DIM = 8;
+    public static final int MIN_WIN_LENGTH = 3;
+
+    private final int dim;
+    private final int winLength;
+    private final long full;
+
+    // Per direction (row, column, diagonal, anti-diagonal): cell step and window start cells
+    private final int[] steps = new int[4];
+    private final long[] starts = new long[4];
+
+    // Per move index
+    private final long[] moveLine;
+    private final long[] moveFirst;
+    private final long[] moveLast;
+    private final int[] moveStep;
+
+    private final int[] positionScores;
+
+    private long xMask;
+    private long oMask;
+    private Player currentPlayer;
+
+    public SquareBoard(int dim, int winLength) {
+        if (dim < MIN_DIM || dim > MAX_DIM) {
+            throw new IllegalArgumentException("Board size must be " + MIN_DIM + " to " + MAX_DIM + ": " + dim);
+        }
+        if (winLength < MIN_WIN_LENGTH || winLength > dim) {
+            throw new IllegalArgumentException("Win length must be " + MIN_WIN_LENGTH + " to " + dim + ": " + winLength);
+        }
+        this.dim = dim;
+        this.winLength = winLength;
+        int cells = dim * dim;
+        full = cells == Long.SIZE ? -1L : (1L << cells) - 1;
+
+        steps[0] = 1;
+        steps[1] = dim;
+        steps[2] = dim + 1;
+        steps[3] = dim - 1;
+        int last = dim - winLength;
+        for (int row = 0; row < dim; row++) {
+            for (int col = 0; col < dim; col++) {
+                long bit = 1L << (row * dim + col);
+                if (col <= last) starts[0] |= bit;
+                if (row <= last) starts[1] |= bit;
+                if (row <= last && col <= last) starts[2] |= bit;
+                if (row <= last && col >= winLength - 1) starts[3] |= bit;
+            }
+        }
+
+        moveLine = new long[2 * dim];
+        moveFirst = new long[2 * dim];
+        moveLast = new long[2 * dim];
+        moveStep = new int[2 * dim];
+        for (int i = 0; i < dim; i++) {
+            for (int j = 0; j < dim; j++) {
+                moveLine[i] |= 1L << (j * dim + i);
+                moveLine[dim + i] |= 1L << (i * dim + j);
+            }
+            moveFirst[i] = 1L << i;
+            moveLast[i] = 1L << ((dim - 1) * dim + i);
+            moveStep[i] = dim;
+            moveFirst[dim + i] = 1L << (i * dim);
+            moveLast[dim + i] = 1L << (i * dim + dim - 1);
+            moveStep[dim + i] = 1;
+        }
+
+        positionScores = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            positionScores[cell] = dim == BitBoard.DIM && winLength == BitBoard.DIM
+                    ? GameBoard.POSITION_SCORES[cell / dim][cell % dim]
+                    : windowsThrough(cell);
+        }
+
+        currentPlayer = Player.X;
+    }
+
+    /**
+     * Creates an empty board. The standard 5x5 game with a win length of 5
+     * gets a {@link BitBoard}, which stays the fastest path for it.
+     */
+    public static Board create(int dim, int winLength) {
+        if (dim == BitBoard.DIM && winLength == BitBoard.DIM) {
+            return new BitBoard();
+        }
+        return new SquareBoard(dim, winLength);
+    }
+
+    /** Counts the winning windows through a cell, the positional value of a cell on variant boards. */
+    private int windowsThrough(int cell) {
+        int count = 0;
+        for (int d = 0; d < steps.length; d++) {
+            for (int k = 0; k < winLength; k++) {
+                int start = cell - k * steps[d];
+                if (start >= 0 && (starts[d] & 1L << start) != 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    public int getDim() {
+        return dim;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /** Returns the number of moves, two per row/column pair. */
+    public int getMoveCount() {
+        return 2 * dim;
+    }
+
+    /** Maps a move character to its index, or -1 if it is not a move on this board. */
+    public int moveIndex(char move) {
+        if (move >= '1' && move < '1' + dim) {
+            return move - '1';
+        }
+        if (move >= 'A' && move < 'A' + dim) {
+            return dim + move - 'A';
+        }
+        return -1;
+    }
+
+    public char moveChar(int index) {
+        return index < dim ? (char) ('1' + index) : (char) ('A' + index - dim);
+    }
+
+    @Override
+    public void clear() {
+        xMask = 0;
+        oMask = 0;
+    }
+
+    @Override
+    public boolean submitMove(char move) {
+        int index = moveIndex(move);
+        return index >= 0 && applyMove(index);
+    }
+
+    /**
+     * Applies the move with the given index. A slide into a full line pushes
+     * the last token off and keeps the turn, as on the standard board.
+     * @return true if the player to move changed.
+     */
+    public boolean applyMove(int index) {
+        long line = moveLine[index];
+        long blanks = line & ~(xMask | oMask);
+        long stop = blanks | moveLast[index];
+        long target = stop & -stop;
+        long run = (target - 1) & line;
+        long keep = ~(run | target);
+        int step = moveStep[index];
+
+        xMask = (xMask & keep) | ((xMask & run) << step);
+        oMask = (oMask & keep) | ((oMask & run) << step);
+        if (currentPlayer == Player.X) {
+            xMask |= moveFirst[index];
+        } else {
+            oMask |= moveFirst[index];
+        }
+        if (blanks != 0) {
+            currentPlayer = currentPlayer == Player.X ? Player.O : Player.X;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Player checkForWin() {
+        for (int d = 0; d < steps.length; d++) {
+            long x = windows(xMask, d);
+            long o = windows(oMask, d);
+            if ((x | o) != 0) {
+                if (o == 0) return Player.X;
+                if (x == 0) return Player.O;
+                return Long.numberOfTrailingZeros(x) <= Long.numberOfTrailingZeros(o) ? Player.X : Player.O;
+            }
+        }
+        return Player.BLANK;
+    }
+
+    /** Returns the start cells of the complete windows of a mask in one direction. */
+    private long windows(long mask, int direction) {
+        int step = steps[direction];
+        long found = starts[direction] & mask;
+        for (int k = 1; k < winLength && found != 0; k++) {
+            found &= mask >>> (k * step);
+        }
+        return found;
+    }
+
+    @Override
+    public boolean checkForTie() {
+        return isFull() && checkForWin() == Player.BLANK;
+    }
+
+    public boolean isFull() {
+        return (xMask | oMask) == full;
+    }
+
+    @Override
+    public Player getCell(int row, int col) {
+        long bit = 1L << (row * dim + col);
+        if ((xMask & bit) != 0) return Player.X;
+        if ((oMask & bit) != 0) return Player.O;
+        return Player.BLANK;
+    }
+
+    @Override
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /** Returns the positional value of a cell; on 5x5 it is {@link GameBoard}'s table. */
+    public int getPositionScore(int row, int col) {
+        return positionScores[row * dim + col];
+    }
+
+    public long getXMask() {
+        return xMask;
+    }
+
+    public long getOMask() {
+        return oMask;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.slide.logic;
+
+/**
+ * Transposition across the main diagonal, the one symmetry of the rules:
+ * cell (row, col) maps to (col, row), a push down column n becomes a push
+ * right along row n and vice versa, and both diagonal lines map onto
+ * themselves. Tables keyed by position store only the canonical form, the
+ * smaller of a {@link BitBoard#key()} and its transpose, which roughly
+ * halves their size.
+ *
+ * <p>checkForWin looks at rows before columns, so a position where X
+ * completes a row and O a column at once is not answered symmetrically.
+ * Such positions are terminal and never reach a table.
+ */
+public final class Symmetry {
+    private static final int DIM = BitBoard.DIM;
+    private static final int CELLS = BitBoard.CELLS;
+
+    /** Bits of a row pattern spread down column 0: bit c moves to bit c * 5. */
+    private static final int[] SPREAD = new int[1 << DIM];
+
+    static {
+        for (int bits = 0; bits < SPREAD.length; bits++) {
+            for (int c = 0; c < DIM; c++) {
+                if ((bits & 1 << c) != 0) {
+                    SPREAD[bits] |= 1 << (c * DIM);
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /** Returns the transpose of a 25-bit occupancy mask. */
+    public static int transpose(int mask) {
+        int t = 0;
+        for (int row = 0; row < DIM; row++) {
+            t |= SPREAD[(mask >>> (row * DIM)) & 0x1F] << row;
+        }
+        return t;
+    }
+
+    /** Returns the transpose of a packed {@link BitBoard#key()}. */
+    public static long transposeKey(long key) {
+        long x = transpose((int) key & BitBoard.FULL);
+        long o = transpose((int) (key >>> CELLS) & BitBoard.FULL);
+        return x | o << CELLS | (key & 1L << (2 * CELLS));
+    }
+
+    /** Returns the canonical form of a packed key: the smaller of it and its transpose. */
+    public static long canonicalKey(long key) {
+        return Math.min(key, transposeKey(key));
+    }
+
+    /** Maps a move index 0-9 to the matching move of the transposed board. */
+    public static int transposeMove(int index) {
+        return index < DIM ? index + DIM : index - DIM;
+    }
+
+    /** Maps a move character to the matching move of the transposed board. */
+    public static char transposeMove(char move) {
+        return BitBoard.moveChar(transposeMove(BitBoard.moveIndex(move)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.slide.logic;
+
+/**
+ * A {@link Board} backend that stores every row and column as a base-3
+ * line index and applies moves through {@link SlideTable}. A move is one
+ * table lookup for the slid line plus a fixed five-step patch of the lines
+ * that cross it.
+ */
+public class TableBoard implements Board {
+    private static final int DIM = SlideTable.LINE;
+
+    /** Row codes; digit i of a row is column i. */
+    private final int[] rows = new int[DIM];
+    /** Column codes; digit i of a column is row i. */
+    private final int[] cols = new int[DIM];
+    private int filled;
+    private int side;
+
+    public TableBoard() {
+        side = SlideTable.X;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < DIM; i++) {
+            rows[i] = 0;
+            cols[i] = 0;
+        }
+        filled = 0;
+    }
+
+    @Override
+    public boolean submitMove(char move) {
+        int index = BitBoard.moveIndex(move);
+        if (index < 0) {
+            return false;
+        }
+        int transition;
+        if (index < DIM) {
+            transition = slide(cols, rows, index);
+        } else {
+            transition = slide(rows, cols, index - DIM);
+        }
+        int legal = (transition >>> 10) & 1;
+        filled += legal;
+        side ^= legal * 3; // X (1) <-> O (2)
+        return legal != 0;
+    }
+
+    /**
+     * Slides the line {@code lines[i]} and patches digit i of every crossing line.
+     * @return The packed SlideTable transition.
+     */
+    private int slide(int[] lines, int[] crossing, int i) {
+        int old = lines[i];
+        int transition = SlideTable.slide(old, side);
+        int next = transition & 0xFF;
+        lines[i] = next;
+        int weight = SlideTable.POW3[i];
+        int oldBase = old * DIM;
+        int nextBase = next * DIM;
+        for (int j = 0; j < DIM; j++) {
+            crossing[j] += (SlideTable.DIGITS[nextBase + j] - SlideTable.DIGITS[oldBase + j]) * weight;
+        }
+        return transition;
+    }
+
+    @Override
+    public Player checkForWin() {
+        for (int i = 0; i < DIM; i++) {
+            if (SlideTable.WINNER[rows[i]] != SlideTable.BLANK) return SlideTable.token(SlideTable.WINNER[rows[i]]);
+        }
+        for (int i = 0; i < DIM; i++) {
+            if (SlideTable.WINNER[cols[i]] != SlideTable.BLANK) return SlideTable.token(SlideTable.WINNER[cols[i]]);
+        }
+        int diagonal = 0;
+        int anti = 0;
+        for (int i = 0; i < DIM; i++) {
+            diagonal += SlideTable.digit(rows[i], i) * SlideTable.POW3[i];
+            anti += SlideTable.digit(rows[i], DIM - 1 - i) * SlideTable.POW3[i];
+        }
+        if (SlideTable.WINNER[diagonal] != SlideTable.BLANK) return SlideTable.token(SlideTable.WINNER[diagonal]);
+        return SlideTable.token(SlideTable.WINNER[anti]);
+    }
+
+    @Override
+    public boolean checkForTie() {
+        return filled == DIM * DIM && checkForWin() == Player.BLANK;
+    }
+
+    @Override
+    public Player getCell(int row, int col) {
+        return SlideTable.token(SlideTable.digit(rows[row], col));
+    }
+
+    @Override
+    public Player getCurrentPlayer() {
+        return SlideTable.token(side);
+    }
+}
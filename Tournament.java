@@ -0,0 +1,286 @@
+package com.example.slide.tools;
+
+import com.example.slide.jfr.JfrTracer;
+import com.example.slide.logic.BitBoard;
+import com.example.slide.logic.DifficultyLevel;
+import com.example.slide.logic.GameBoard;
+import com.example.slide.logic.Instrumentation;
+import com.example.slide.logic.Player;
+import com.example.slide.logic.SearchEngine;
+import com.example.slide.logic.SearchLimits;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plays engine-vs-engine games on a work-stealing pool and reports the
+ * result of engine A against engine B: win/draw/loss counts, the Elo
+ * difference with a 95% error bar, and a sequential probability ratio test
+ * that stops the match early once it is decided.
+ *
+ * <p>Games come in pairs that share a random opening, with A playing X in
+ * one and O in the other. Each worker thread keeps its own engines. Every
+ * finished game is appended to the results file at once, and only the
+ * counters are kept in memory. Game outcomes and search iterations are
+ * emitted as Flight Recorder events for a recording started with
+ * {@code -XX:StartFlightRecording}.
+ *
+ * <p>An engine is a difficulty level ({@code EASY}, {@code MEDIUM},
+ * {@code HARD}) or a fixed budget: {@code depth:N}, {@code time:MS} or
+ * {@code nodes:N}.
+ *
+ * <p>Usage: {@code Tournament engineA engineB [games] [threads] [file] [openingPlies] [elo0] [elo1]}
+ */
+public class Tournament {
+
+    private static final int MAX_GAME_PLIES = 300;
+    private static final double ALPHA = 0.05;
+    private static final double BETA = 0.05;
+    private static final long SEED = 20240101L;
+
+    private final SearchLimits limitsA;
+    private final SearchLimits limitsB;
+    private final int openingPlies;
+    private final double elo0;
+    private final double elo1;
+    private final PrintWriter out;
+    private final ThreadLocal<SearchEngine[]> engines =
+            ThreadLocal.withInitial(() -> new SearchEngine[] {new SearchEngine(), new SearchEngine()});
+    private final AtomicBoolean decided = new AtomicBoolean();
+
+    // Guarded by this
+    private int wins;
+    private int draws;
+    private int losses;
+    private String verdict;
+    private int decidedAt;
+
+    Tournament(SearchLimits limitsA, SearchLimits limitsB, int openingPlies, double elo0, double elo1, PrintWriter out) {
+        this.limitsA = limitsA;
+        this.limitsB = limitsB;
+        this.openingPlies = openingPlies;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: Tournament engineA engineB [games] [threads] [file] [openingPlies] [elo0] [elo1]");
+            return;
+        }
+        SearchLimits a = parseEngine(args[0]);
+        SearchLimits b = parseEngine(args[1]);
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        String file = args.length > 4 ? args[4] : "tournament.csv";
+        int openingPlies = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+        double elo0 = args.length > 6 ? Double.parseDouble(args[6]) : 0;
+        double elo1 = args.length > 7 ? Double.parseDouble(args[7]) : 20;
+
+        JfrTracer.install();
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            out.println("game,opening,a_plays,result,plies,millis");
+            Tournament tournament = new Tournament(a, b, openingPlies, elo0, elo1, out);
+            long start = System.nanoTime();
+            tournament.run(games, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(args[0] + " vs " + args[1] + ": " + tournament.summary());
+            System.out.printf(Locale.ROOT, "%.1f s, %.2f games/s on %d threads%n",
+                    seconds, tournament.played() / seconds, threads);
+            if (Instrumentation.ENABLED) {
+                System.out.println(Instrumentation.summary());
+            }
+        }
+    }
+
+    static SearchLimits parseEngine(String spec) {
+        int colon = spec.indexOf(':');
+        if (colon < 0) {
+            return SearchLimits.of(DifficultyLevel.valueOf(spec.toUpperCase(Locale.ROOT)));
+        }
+        long value = Long.parseLong(spec.substring(colon + 1));
+        switch (spec.substring(0, colon)) {
+            case "depth":
+                return SearchLimits.depth((int) value);
+            case "time":
+                return new SearchLimits(SearchLimits.MAX_DEPTH, value, 0);
+            case "nodes":
+                return new SearchLimits(SearchLimits.MAX_DEPTH, 0, value);
+            default:
+                throw new IllegalArgumentException("Unknown engine: " + spec);
+        }
+    }
+
+    /** Plays the games in pairs on a work-stealing pool until done or decided. */
+    void run(int games, int threads) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int pair = 0; pair < (games + 1) / 2; pair++) {
+                int p = pair;
+                tasks.add(() -> {
+                    String opening = randomOpening(new Random(SEED + p));
+                    for (int game = 2 * p; game < Math.min(2 * p + 2, games) && !decided.get(); game++) {
+                        playGame(game, opening, game % 2 == 0 ? Player.X : Player.O);
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> task : pool.invokeAll(tasks)) {
+                try {
+                    task.get();
+                } catch (ExecutionException e) {
+                    // A lost game would skew the results without a word
+                    throw new IllegalStateException("Game failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Returns random moves from the start that leave the game open. */
+    private String randomOpening(Random random) {
+        StringBuilder moves = new StringBuilder();
+        GameBoard board = new GameBoard();
+        while (moves.length() < openingPlies) {
+            char move = "12345ABCDE".charAt(random.nextInt(10));
+            board.submitMove(move);
+            if (board.checkForWin() != Player.BLANK || board.checkForTie()) {
+                board = new GameBoard();
+                moves.setLength(0);
+                continue;
+            }
+            moves.append(move);
+        }
+        return moves.toString();
+    }
+
+    private void playGame(int game, String opening, Player aSide) {
+        long start = System.nanoTime();
+        GameBoard board = new GameBoard();
+        for (char move : opening.toCharArray()) {
+            board.submitMove(move);
+        }
+        SearchEngine[] pair = engines.get();
+        int plies = 0;
+        Player winner = Player.BLANK;
+        while (plies < MAX_GAME_PLIES) {
+            winner = board.checkForWin();
+            if (winner != Player.BLANK || board.checkForTie() || board.isDrawByRepetition()) {
+                break;
+            }
+            boolean aToMove = board.getCurrentPlayer() == aSide;
+            SearchEngine engine = aToMove ? pair[0] : pair[1];
+            char move = engine.search(board, aToMove ? limitsA : limitsB).getBestMove();
+            if (BitBoard.moveIndex(move) < 0) {
+                throw new IllegalStateException("Engine " + (aToMove ? "A" : "B") + " returned no move in game "
+                        + game + " after " + opening + " and " + plies + " plies");
+            }
+            board.submitMove(move);
+            plies++;
+        }
+        Instrumentation.gameOver(winner, opening.length() + plies);
+        int result = winner == Player.BLANK ? 0 : winner == aSide ? 1 : -1;
+        record(game, opening, aSide, result, plies, (System.nanoTime() - start) / 1_000_000L);
+    }
+
+    /** Returns the SPRT decision for the games so far, or null while undecided. */
+    private String sprtVerdict() {
+        double llr = logLikelihoodRatio();
+        if (llr >= Math.log((1 - BETA) / ALPHA)) {
+            decidedAt = played();
+            return "H1 accepted";
+        }
+        if (llr <= Math.log(BETA / (1 - ALPHA))) {
+            decidedAt = played();
+            return "H0 accepted";
+        }
+        return null;
+    }
+
+    /** Counts a result, appends it to the file and checks the SPRT. */
+    private synchronized void record(int game, String opening, Player aSide, int result, int plies, long millis) {
+        if (result > 0) {
+            wins++;
+        } else if (result < 0) {
+            losses++;
+        } else {
+            draws++;
+        }
+        out.printf(Locale.ROOT, "%d,%s,%s,%s,%d,%d%n", game, opening, aSide,
+                result > 0 ? "win" : result < 0 ? "loss" : "draw", plies, millis);
+        out.flush();
+
+        if (verdict == null) {
+            verdict = sprtVerdict();
+            if (verdict != null) {
+                decided.set(true);
+            }
+        }
+    }
+
+    synchronized int played() {
+        return wins + draws + losses;
+    }
+
+    /** A's mean score per game, a win counting 1 and a draw 1/2. */
+    private double score() {
+        return (wins + draws / 2.0) / played();
+    }
+
+    /** Per-game variance of A's score. */
+    private double variance() {
+        double s = score();
+        return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / played();
+    }
+
+    /**
+     * Log-likelihood ratio of elo1 against elo0 under the normal
+     * approximation used by generalized SPRT.
+     */
+    private double logLikelihoodRatio() {
+        double variance = variance();
+        if (played() < 2 || variance == 0) {
+            return 0;
+        }
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return played() * (s1 - s0) * (2 * score() - s0 - s1) / (2 * variance);
+    }
+
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    private static double elo(double score) {
+        double s = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / s - 1);
+    }
+
+    synchronized String summary() {
+        int n = played();
+        if (n == 0) {
+            return "no games";
+        }
+        double s = score();
+        double margin = 1.96 * Math.sqrt(variance() / n);
+        double llr = logLikelihoodRatio();
+        String sprt = verdict != null ? verdict + " after " + decidedAt + " games" : "inconclusive";
+        return String.format(Locale.ROOT, "+%d =%d -%d (%d games), score %.3f, Elo %+.1f [%+.1f, %+.1f], "
+                        + "SPRT [%.0f, %.0f] LLR %.2f (%s)",
+                wins, draws, losses, n, s, elo(s), elo(s - margin), elo(s + margin), elo0, elo1, llr, sprt);
+    }
+}
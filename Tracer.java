@@ -0,0 +1,37 @@
+package com.example.slide.logic;
+
+/**
+ * Receives detailed events from the game logic once installed with
+ * {@link Instrumentation#setTracer}. Calls come on the thread doing the
+ * work, some of them once per move, so an implementation should record
+ * what it needs and return. Every method does nothing by default.
+ */
+public interface Tracer {
+    /**
+     * Called after a slide on a {@link GameBoard}.
+     * @param board The board after the slide.
+     * @param move The move, '1'-'5' or 'A'-'E'.
+     * @param turnPassed False if the slide pushed a token off and kept the turn.
+     */
+    default void onMove(Board board, char move, boolean turnPassed) {
+    }
+
+    /** Called when a {@link GameBoard} is given a character that is not a slide. */
+    default void onIllegalMove(char move) {
+    }
+
+    /**
+     * Called each time an iteration of a search completes.
+     * @param helperId 0 for the main search, otherwise the helper thread of a parallel search.
+     */
+    default void onSearchIteration(int helperId, SearchResult result) {
+    }
+
+    /**
+     * Called when a game ends.
+     * @param winner The winner, or BLANK for a tie or a draw.
+     * @param moves The moves played in the game.
+     */
+    default void onGameOver(Player winner, int moves) {
+    }
+}
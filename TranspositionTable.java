@@ -0,0 +1,199 @@
+package com.example.slide.logic;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free hash table of search results shared by every
+ * search thread. The whole table is one preallocated {@code long[]} of
+ * 32-byte buckets; each bucket has a depth-preferred slot and an
+ * always-replace slot. A slot is two words: the packed entry
+ * <pre>
+ *   bits 0-15  score
+ *   bits 16-23 depth
+ *   bits 24-25 bound type
+ *   bits 26-29 best move index 0-9 (15 if none)
+ *   bit  30    valid
+ *   bits 31-36 search generation
+ *   bits 48-63 hash check (top 16 bits of the hash)
+ * </pre>
+ * and the hash XORed with the entry. Threads write without locks; a slot
+ * torn by two threads writing at once fails the XOR check and reads as a
+ * miss.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+    public static final int NO_MOVE = 15;
+
+    private static final int BUCKET_LONGS = 4;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+    private static final long VALID = 1L << 30;
+    private static final int GENERATION_SHIFT = 31;
+    private static final long GENERATION_MASK = 0x3FL;
+    private static final long CHECK_MASK = 0xFFFFL << 48;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile long generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    /**
+     * @param sizeMb The table size in megabytes, rounded down to a power of two buckets.
+     */
+    public TranspositionTable(int sizeMb) {
+        if (sizeMb < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB: " + sizeMb);
+        }
+        long buckets = Long.highestOneBit((long) sizeMb * 1024 * 1024 / BUCKET_BYTES);
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_LONGS));
+        table = new long[(int) buckets * BUCKET_LONGS];
+        bucketMask = (int) buckets - 1;
+    }
+
+    /** Returns the table size in bytes. */
+    public long getSizeBytes() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    /** Starts a new search generation; older entries become the first to be replaced. */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     * @return The packed entry, read with the accessors below, or 0 if absent.
+     */
+    public long probe(long hash) {
+        probes.increment();
+        int base = ((int) hash & bucketMask) * BUCKET_LONGS;
+        for (int slot = base; slot < base + BUCKET_LONGS; slot += 2) {
+            long entry = table[slot];
+            // An empty slot matches a hash of 0, which the start position has
+            if ((entry & VALID) != 0 && (table[slot + 1] ^ entry) == hash) {
+                hits.increment();
+                return entry;
+            }
+        }
+        if ((table[base] & VALID) != 0 || (table[base + 2] & VALID) != 0) {
+            collisions.increment();
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result. An entry for the same position is updated in
+     * place; otherwise the depth-preferred slot takes results at least as
+     * deep as its own or left by an older search, passing its previous entry
+     * down to the always-replace slot, which takes everything else.
+     */
+    public void store(long hash, int depth, int score, int bound, int move) {
+        stores.increment();
+        long generation = this.generation;
+        long entry = (score & 0xFFFFL) | (long) depth << 16 | (long) bound << 24 | (long) (move & 0xF) << 26
+                | VALID | generation << GENERATION_SHIFT | (hash & CHECK_MASK);
+        int base = ((int) hash & bucketMask) * BUCKET_LONGS;
+
+        long preferred = table[base];
+        boolean preferredValid = (preferred & VALID) != 0;
+        if (preferredValid && (table[base + 1] ^ preferred) == hash) {
+            write(base, hash, entry);
+        } else if ((table[base + 2] & VALID) != 0 && (table[base + 3] ^ table[base + 2]) == hash) {
+            write(base + 2, hash, entry);
+        } else if (!preferredValid || depth >= depth(preferred)
+                || ((preferred >>> GENERATION_SHIFT) & GENERATION_MASK) != generation) {
+            if (preferredValid) {
+                if ((table[base + 2] & VALID) != 0) {
+                    overwrites.increment();
+                }
+                write(base + 2, table[base + 1] ^ preferred, preferred);
+            }
+            write(base, hash, entry);
+        } else {
+            if ((table[base + 2] & VALID) != 0) {
+                overwrites.increment();
+            }
+            write(base + 2, hash, entry);
+        }
+    }
+
+    private void write(int slot, long hash, long entry) {
+        table[slot] = entry;
+        table[slot + 1] = hash ^ entry;
+    }
+
+    /** Forgets every entry and resets the statistics. */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        probes.reset();
+        hits.reset();
+        collisions.reset();
+        stores.reset();
+        overwrites.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Probes that missed although the bucket held entries of other positions. */
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    /** Stores that evicted an entry of another position. */
+    public long getOverwrites() {
+        return overwrites.sum();
+    }
+
+    /** Returns the fraction of slots in use, sampled from the first 1000 buckets. */
+    public double getOccupancy() {
+        int buckets = Math.min(1000, bucketMask + 1);
+        int used = 0;
+        for (int i = 0; i < buckets * BUCKET_LONGS; i += 2) {
+            if ((table[i] & VALID) != 0) {
+                used++;
+            }
+        }
+        return used / (2.0 * buckets);
+    }
+
+    /** Returns a one-line summary of the statistics. */
+    public String getStatistics() {
+        long probed = getProbes();
+        return String.format("size %d MB, probes %d, hits %d (%.1f%%), collisions %d, stores %d, overwrites %d, occupancy %.1f%%",
+                getSizeBytes() >> 20, probed, getHits(), probed > 0 ? 100.0 * getHits() / probed : 0.0,
+                getCollisions(), getStores(), getOverwrites(), 100 * getOccupancy());
+    }
+
+    public static int score(long entry) {
+        return (short) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 3;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry >>> 26) & 0xF;
+    }
+}
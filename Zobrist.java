@@ -0,0 +1,50 @@
+package com.example.slide.logic;
+
+/**
+ * Zobrist keys for position hashing. A position hash is the XOR of one key
+ * per occupied cell plus {@link #SIDE} when O is to move, so a change of a
+ * single cell or of the side to move is one XOR.
+ */
+public final class Zobrist {
+    public static final int CELLS = 25;
+
+    /** Key XORed in while O is to move. */
+    public static final long SIDE;
+
+    private static final long[] KEYS = new long[3 * CELLS];
+
+    static {
+        long seed = 0x5EED5L;
+        for (int cell = 0; cell < CELLS; cell++) {
+            seed = next(seed);
+            KEYS[Player.X.ordinal() * CELLS + cell] = mix(seed);
+            seed = next(seed);
+            KEYS[Player.O.ordinal() * CELLS + cell] = mix(seed);
+            // BLANK keys stay 0 so empty cells do not contribute
+        }
+        SIDE = mix(next(seed));
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a token on a cell.
+     * @param p The token; BLANK (and TIE) have no key.
+     * @param cell The cell index, row * 5 + col.
+     */
+    public static long key(Player p, int cell) {
+        return p == Player.X || p == Player.O ? KEYS[p.ordinal() * CELLS + cell] : 0L;
+    }
+
+    private static long next(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    /** SplitMix64 finalizer; also used to spread packed board keys. */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}